@@ -0,0 +1,68 @@
+// Concurrent-connection load test for the platform vs virtual thread modes.
+// See README.md for how to run both modes at the same heap and compare.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const MAX_VUS = parseInt(__ENV.MAX_VUS || '2000', 10);
+const IMAGE = __ENV.IMAGE; // blob name of an uploaded image, e.g. <sha256>.jpg
+
+const referenceData = { deviceId: 'loadtest', lang: 'en' };
+const json = { headers: { 'Content-Type': 'application/json' } };
+
+export const options = {
+    scenarios: {
+        ramp: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '1m', target: MAX_VUS / 4 },
+                { duration: '1m', target: MAX_VUS / 2 },
+                { duration: '1m', target: MAX_VUS },
+                { duration: '2m', target: MAX_VUS },
+            ],
+            gracefulRampDown: '10s',
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+        http_req_duration: ['p(95)<1000'],
+    },
+};
+
+export function setup() {
+    const email = `loadtest-${Date.now()}@example.com`;
+    const credentials = { email, password: 'loadtest-password' };
+    http.post(`${BASE_URL}/api/auth/register`, JSON.stringify({
+        requestData: { ...credentials, fullName: 'Load Test', phone: '+10000000000' },
+        referenceData,
+    }), json);
+    const login = http.post(`${BASE_URL}/api/auth/login`, JSON.stringify({
+        requestData: credentials,
+        referenceData,
+    }), json);
+    return { token: login.json('responseData.token') };
+}
+
+export default function (data) {
+    const auth = { headers: { ...json.headers, Authorization: `Bearer ${data.token}` } };
+
+    // A JDBC-bound read and an in-memory read per iteration
+    const page = http.post(`${BASE_URL}/api/products/get/page`, JSON.stringify({
+        requestData: { size: 20 },
+        referenceData,
+    }), auth);
+    check(page, { 'page 200': (r) => r.status === 200 });
+
+    const suggest = http.post(`${BASE_URL}/api/products/suggest`, JSON.stringify({
+        requestData: { query: 'pro', limit: 10 },
+        referenceData,
+    }), auth);
+    check(suggest, { 'suggest 200': (r) => r.status === 200 });
+
+    // Long-lived file transfer that holds a request thread while the client reads slowly
+    if (IMAGE) {
+        const image = http.get(`${BASE_URL}/api/products/images/${IMAGE}`, { responseType: 'none' });
+        check(image, { 'image 200': (r) => r.status === 200 });
+    }
+}
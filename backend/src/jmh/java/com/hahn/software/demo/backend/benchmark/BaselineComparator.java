@@ -0,0 +1,58 @@
+package com.hahn.software.demo.backend.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Prints the score and allocation delta of every benchmark present in two
+ * JMH JSON result files, e.g. a local baseline and the latest run.
+ */
+public class BaselineComparator {
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: BaselineComparator <baseline.json> <current.json>");
+            System.exit(2);
+        }
+
+        Map<String, double[]> baseline = read(new File(args[0]));
+        Map<String, double[]> current = read(new File(args[1]));
+
+        System.out.printf("%-75s %12s %12s %8s %14s %14s%n",
+                "Benchmark", "base", "current", "delta", "base B/op", "current B/op");
+        for (Map.Entry<String, double[]> entry : new TreeMap<>(current).entrySet()) {
+            double[] before = baseline.get(entry.getKey());
+            double[] after = entry.getValue();
+            if (before == null) {
+                System.out.printf("%-75s %12s %12.3f %8s %14s %14.0f%n",
+                        entry.getKey(), "-", after[0], "new", "-", after[1]);
+                continue;
+            }
+            System.out.printf("%-75s %12.3f %12.3f %+7.1f%% %14.0f %14.0f%n",
+                    entry.getKey(), before[0], after[0], (after[0] - before[0]) / before[0] * 100,
+                    before[1], after[1]);
+        }
+    }
+
+    private static Map<String, double[]> read(File file) throws IOException {
+        Map<String, double[]> results = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+            for (Map.Entry<String, JsonNode> param : run.path("params").properties()) {
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            double score = run.path("primaryMetric").path("score").asDouble();
+            double allocation = run.path("secondaryMetrics").path(ALLOCATION).path("score").asDouble(Double.NaN);
+            results.put(key.toString(), new double[]{score, allocation});
+        }
+        return results;
+    }
+}
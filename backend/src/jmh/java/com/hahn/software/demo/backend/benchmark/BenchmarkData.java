@@ -0,0 +1,45 @@
+package com.hahn.software.demo.backend.benchmark;
+
+import com.hahn.software.demo.backend.infrastructure.output.persistence.entity.ProductEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Deterministic fixtures shared by the benchmarks, so runs on different
+ * commits measure the same data.
+ */
+public class BenchmarkData {
+
+    private static final String[] CATEGORIES = {"Electronics", "Books", "Garden", "Toys", "Kitchen"};
+
+    public static List<ProductEntity> productEntities(int count) {
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        List<ProductEntity> entities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            entities.add(ProductEntity.builder()
+                    .id(new UUID(random.nextLong(), random.nextLong()))
+                    .name("Product " + i)
+                    .description("Description for product " + i + " ".repeat(random.nextInt(200)))
+                    .price(BigDecimal.valueOf(random.nextInt(100_000), 2))
+                    .stockQuantity(random.nextInt(1000))
+                    .category(CATEGORIES[i % CATEGORIES.length])
+                    .imageUrl("http://localhost:8080/api/products/images/" + i + ".jpg")
+                    .createdAt(start.plusSeconds(i))
+                    .updatedAt(start.plusSeconds(i))
+                    .build());
+        }
+        return entities;
+    }
+
+    public static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,72 @@
+package com.hahn.software.demo.backend.benchmark;
+
+import com.hahn.software.demo.backend.domain.model.StagedImage;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.adapter.FileStorageAdapter;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.image.ContentAddressedImageStore;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.image.ImageStorageMetrics;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.image.ImageVariantProcessor;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.image.UploadBudget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileStorageBenchmark {
+
+    @Param({"16384", "1048576", "8388608"})
+    public int fileSize;
+
+    private Path uploadDir;
+    private ImageVariantProcessor variantProcessor;
+    private ContentAddressedImageStore imageStore;
+    private FileStorageAdapter adapter;
+    private MockMultipartFile file;
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    @Setup
+    public void setUp() throws IOException {
+        uploadDir = Files.createTempDirectory("jmh-uploads");
+        // Random bytes behind a PNG signature pass sniffing but are not decodable, so variant jobs return immediately
+        variantProcessor = new ImageVariantProcessor(1, 16, 40_000_000L);
+        imageStore = new ContentAddressedImageStore(uploadDir.toString(), variantProcessor);
+        imageStore.load();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UploadBudget uploadBudget = new UploadBudget(DataSize.ofMegabytes(16), DataSize.ofMegabytes(64), 4,
+                DataSize.ofKilobytes(64), Duration.ofSeconds(2), meterRegistry);
+        // Staging never touches the outbox, which needs a database
+        adapter = new FileStorageAdapter(imageStore, new ImageStorageMetrics(meterRegistry), uploadBudget, null);
+        ReflectionTestUtils.setField(adapter, "baseUrl", "http://localhost:8080");
+        byte[] content = BenchmarkData.randomBytes(fileSize);
+        System.arraycopy(PNG_SIGNATURE, 0, content, 0, PNG_SIGNATURE.length);
+        file = new MockMultipartFile("image", "photo.png", "image/png", content);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        imageStore.close();
+        variantProcessor.shutdown();
+        FileSystemUtils.deleteRecursively(uploadDir);
+    }
+
+    @Benchmark
+    public StagedImage stageProductImage() throws IOException {
+        StagedImage staged = adapter.stageProductImage(file);
+        // Releasing deletes the blob again, so every invocation writes the full file
+        imageStore.abandon(staged.getToken());
+        return staged;
+    }
+}
@@ -0,0 +1,80 @@
+package com.hahn.software.demo.backend.benchmark;
+
+import com.hahn.software.demo.backend.domain.aggregate.User;
+import com.hahn.software.demo.backend.infrastructure.config.security.JwtUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token: the previous filter
+ * path (key and parser rebuilt, token parsed twice) against a single
+ * verification with and without the verified-token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+    static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    static final int EXPIRATION_MS = 900000;
+    static final long REFRESH_EXPIRATION_MS = 1209600000L;
+
+    private JwtUtils uncached;
+    private JwtUtils cached;
+    private User user;
+    private String sessionId;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        uncached = new JwtUtils(SECRET, EXPIRATION_MS, REFRESH_EXPIRATION_MS, 0, new SimpleMeterRegistry());
+        cached = new JwtUtils(SECRET, EXPIRATION_MS, REFRESH_EXPIRATION_MS, 10_000, new SimpleMeterRegistry());
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .email("bench@example.com")
+                .isActive(true)
+                .build();
+        sessionId = UUID.randomUUID().toString();
+        token = uncached.generateAccessToken(user, sessionId);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return uncached.generateAccessToken(user, sessionId);
+    }
+
+    @Benchmark
+    public String legacyExtractThenValidate() {
+        String subject = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload()
+                .getSubject();
+        Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseSignedClaims(token);
+        return subject;
+    }
+
+    @Benchmark
+    public Claims verifyUncached() {
+        return uncached.verify(token);
+    }
+
+    @Benchmark
+    public Claims verifyCached() {
+        return cached.verify(token);
+    }
+}
@@ -0,0 +1,42 @@
+package com.hahn.software.demo.backend.benchmark;
+
+import com.hahn.software.demo.backend.domain.aggregate.Product;
+import com.hahn.software.demo.backend.domain.mapper.ProductDomainMapper;
+import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.response.ProductResponse;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.entity.ProductEntity;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.mapper.ProductPersistenceMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductMappingBenchmark {
+
+    @Param({"1000", "100000"})
+    public int products;
+
+    private List<ProductEntity> entities;
+    private List<Product> domain;
+
+    @Setup
+    public void setUp() {
+        entities = BenchmarkData.productEntities(products);
+        domain = ProductPersistenceMapper.toDomainList(entities);
+    }
+
+    @Benchmark
+    public List<Product> persistenceToDomainList() {
+        return ProductPersistenceMapper.toDomainList(entities);
+    }
+
+    @Benchmark
+    public List<ProductResponse> domainToResponseList() {
+        return ProductDomainMapper.toResponseList(domain);
+    }
+}
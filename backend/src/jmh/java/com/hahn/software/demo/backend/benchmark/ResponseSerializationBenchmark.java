@@ -0,0 +1,73 @@
+package com.hahn.software.demo.backend.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hahn.software.demo.backend.domain.mapper.ProductDomainMapper;
+import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.request.ReferenceData;
+import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.response.ProductResponse;
+import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.response.ResponseBody;
+import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.response.SerializedJson;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.mapper.ProductPersistenceMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of the {@code /get/all} envelope, written to a discarding
+ * stream so only serialization is measured: once from response objects and
+ * once from pre-serialized products, as served on a response cache hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"1000", "100000"})
+    public int products;
+
+    private ObjectMapper objectMapper;
+    private ResponseBody<List<ProductResponse>, ReferenceData> body;
+    private ResponseBody<List<SerializedJson>, ReferenceData> serializedBody;
+    private final OutputStream sink = OutputStream.nullOutputStream();
+
+    @Setup
+    public void setUp() throws IOException {
+        // Same defaults Spring Boot applies (java.time support, ISO dates)
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        objectMapper.getFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        List<ProductResponse> content = ProductDomainMapper.toResponseList(
+                ProductPersistenceMapper.toDomainList(BenchmarkData.productEntities(products)));
+        body = new ResponseBody<>(
+                "000",
+                "Products retrieved successfully",
+                content,
+                new ReferenceData("bench-device", "en"));
+        List<SerializedJson> serialized = new ArrayList<>(content.size());
+        for (ProductResponse response : content) {
+            serialized.add(SerializedJson.of(objectMapper, response));
+        }
+        serializedBody = new ResponseBody<>(
+                "000",
+                "Products retrieved successfully",
+                serialized,
+                new ReferenceData("bench-device", "en"));
+    }
+
+    @Benchmark
+    public void serializeProductList() throws IOException {
+        objectMapper.writeValue(sink, body);
+    }
+
+    @Benchmark
+    public void writePreSerializedProductList() throws IOException {
+        objectMapper.writeValue(sink, serializedBody);
+    }
+}
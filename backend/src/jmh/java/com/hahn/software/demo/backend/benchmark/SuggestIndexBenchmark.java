@@ -0,0 +1,76 @@
+package com.hahn.software.demo.backend.benchmark;
+
+import com.hahn.software.demo.backend.application.port.outbound.ProductRepositoryPort;
+import com.hahn.software.demo.backend.domain.aggregate.Product;
+import com.hahn.software.demo.backend.domain.model.ProductSuggestion;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.mapper.ProductPersistenceMapper;
+import com.hahn.software.demo.backend.infrastructure.output.search.InMemoryProductSuggestIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Per-keystroke cost of the autocomplete index. The footprint gauge is
+ * printed once per trial so memory per product can be tracked alongside.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SuggestIndexBenchmark {
+
+    private static final String[] WORDS = {
+            "wireless", "headphones", "organic", "coffee", "stainless", "steel", "kettle", "garden",
+            "hose", "children", "puzzle", "leather", "wallet", "running", "shoes", "ceramic", "mug",
+            "bluetooth", "speaker", "cotton", "shirt", "wooden", "chair", "smart", "watch"};
+
+    @Param({"1000", "100000"})
+    public int products;
+
+    private InMemoryProductSuggestIndex index;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        Random random = new Random(42);
+        List<Product> catalog = ProductPersistenceMapper.toDomainList(BenchmarkData.productEntities(products));
+        for (Product product : catalog) {
+            product.setName(WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + " " + random.nextInt(1000));
+        }
+
+        ProductRepositoryPort repository = Mockito.mock(ProductRepositoryPort.class);
+        Mockito.doAnswer(invocation -> {
+            catalog.forEach(invocation.<Consumer<Product>>getArgument(0));
+            return null;
+        }).when(repository).forEach(Mockito.any());
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        index = new InMemoryProductSuggestIndex(repository, registry);
+        index.rebuild();
+        System.out.printf("%n%d products, ~%.0f bytes/product%n", products,
+                registry.get("products.suggest.bytes.per.product").gauge().value());
+    }
+
+    @Benchmark
+    public List<ProductSuggestion> singleLetter() {
+        return index.suggest("s", 10);
+    }
+
+    @Benchmark
+    public List<ProductSuggestion> wordPrefix() {
+        return index.suggest("head", 10);
+    }
+
+    @Benchmark
+    public List<ProductSuggestion> twoWords() {
+        return index.suggest("organic cof", 10);
+    }
+}
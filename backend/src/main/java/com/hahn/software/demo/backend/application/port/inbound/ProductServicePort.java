@@ -1,17 +1,36 @@
 package com.hahn.software.demo.backend.application.port.inbound;
 
 import com.hahn.software.demo.backend.domain.aggregate.Product;
+import com.hahn.software.demo.backend.domain.model.BatchItemResult;
+import com.hahn.software.demo.backend.domain.model.CatalogRevision;
+import com.hahn.software.demo.backend.domain.model.CursorPage;
+import com.hahn.software.demo.backend.domain.model.ProductField;
+import com.hahn.software.demo.backend.domain.model.ProductRevision;
+import com.hahn.software.demo.backend.domain.model.ProductSearchCriteria;
+import com.hahn.software.demo.backend.domain.model.ProductSuggestion;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface ProductServicePort {
     Product createProduct(Product product, MultipartFile image);
     Product updateProduct(UUID id, Product product, MultipartFile image);
     Product getProductById(UUID id);
-    List<Product> getAllProducts();
+    List<Product> getAllProducts(Set<ProductField> fields);
+    ProductRevision getProductRevision(UUID id);
+    CatalogRevision getCatalogRevision();
+    CursorPage<Product> getProductsPage(String cursor, int size, Set<ProductField> fields);
+    CursorPage<Product> searchProducts(ProductSearchCriteria criteria, String cursor, int size, Set<ProductField> fields);
+    List<ProductSuggestion> suggestProducts(String query, int limit);
+    void exportProducts(Consumer<Product> sink);
     void deleteProduct(UUID id);
+    int adjustStock(UUID id, int delta);
+    List<BatchItemResult> createProducts(List<Product> products);
+    List<BatchItemResult> updateProducts(List<Product> products);
+    List<BatchItemResult> deleteProducts(List<UUID> ids);
     String getImageUrl(UUID id);
 }
 
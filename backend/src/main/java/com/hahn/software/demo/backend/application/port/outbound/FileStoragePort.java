@@ -1,11 +1,34 @@
 package com.hahn.software.demo.backend.application.port.outbound;
 
+import com.hahn.software.demo.backend.domain.model.StagedImage;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.UUID;
 
 public interface FileStoragePort {
-    String saveProductImage(UUID productId, MultipartFile file);
+    /**
+     * Writes the image to storage without assigning it to a product. Call
+     * outside any transaction: this is where the disk I/O happens.
+     */
+    StagedImage stageProductImage(MultipartFile file);
+
+    /**
+     * Records, in the current transaction, that the staged image belongs to
+     * the product. The assignment takes effect once the transaction commits.
+     */
+    void attachProductImage(UUID productId, StagedImage image);
+
+    /**
+     * Settles a staged image after the transaction meant to attach it failed:
+     * attached if that transaction committed after all, released otherwise.
+     */
+    void discardStagedImage(StagedImage image);
+
+    /**
+     * Records, in the current transaction, that the product's image is to be
+     * removed; the file goes once the transaction commits.
+     */
     void deleteProductImage(UUID productId);
+
     String getProductImageUrl(UUID productId);
 }
@@ -1,16 +1,48 @@
 package com.hahn.software.demo.backend.application.port.outbound;
 
 import com.hahn.software.demo.backend.domain.aggregate.Product;
+import com.hahn.software.demo.backend.domain.model.CatalogRevision;
+import com.hahn.software.demo.backend.domain.model.CursorPage;
+import com.hahn.software.demo.backend.domain.model.ProductCursor;
+import com.hahn.software.demo.backend.domain.model.ProductField;
+import com.hahn.software.demo.backend.domain.model.ProductRevision;
+import com.hahn.software.demo.backend.domain.model.ProductSearchCriteria;
+import com.hahn.software.demo.backend.domain.model.ProductSearchCursor;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface ProductRepositoryPort {
     Product save(Product product);
     Optional<Product> findById(UUID id);
-    List<Product> findAll();
+    List<Product> findAllById(Collection<UUID> ids);
+    void insertAll(List<Product> products);
+    void updateAll(List<Product> products);
+    void deleteAllById(Collection<UUID> ids);
+    List<Product> findAll(Set<ProductField> fields);
+    CursorPage<Product> findPage(ProductCursor after, int size, Set<ProductField> fields);
+    CursorPage<Product> search(ProductSearchCriteria criteria, ProductSearchCursor after, int size, Set<ProductField> fields);
+    void forEach(Consumer<Product> action);
     void deleteById(UUID id);
     boolean existsById(UUID id);
+    Optional<ProductRevision> findRevisionById(UUID id);
+
+    /**
+     * Reads the row from the primary, bypassing any cache, and locks it until
+     * the surrounding transaction ends. Must be called inside a transaction.
+     */
+    Optional<Product> findByIdForUpdate(UUID id);
+    CatalogRevision findCatalogRevision();
+
+    /**
+     * Adds {@code delta} to the stock of a product unless the result would be
+     * negative. Returns the new quantity, or empty when the product does not
+     * exist or has too little stock.
+     */
+    Optional<Integer> adjustStock(UUID id, int delta);
 }
 
@@ -0,0 +1,17 @@
+package com.hahn.software.demo.backend.application.port.outbound;
+
+import com.hahn.software.demo.backend.domain.aggregate.Product;
+import com.hahn.software.demo.backend.domain.model.ProductSuggestion;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Type-ahead lookup over product names and categories. Writes take effect
+ * once the surrounding transaction commits.
+ */
+public interface ProductSuggestIndexPort {
+    void index(Product product);
+    void remove(UUID id);
+    List<ProductSuggestion> suggest(String query, int limit);
+}
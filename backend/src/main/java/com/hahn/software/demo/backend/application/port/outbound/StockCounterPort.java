@@ -0,0 +1,40 @@
+package com.hahn.software.demo.backend.application.port.outbound;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Stock adjustments for hot products, accumulated in memory and written to
+ * the database in batches instead of one row update per adjustment.
+ */
+public interface StockCounterPort {
+
+    boolean isHot(UUID productId);
+
+    /**
+     * Same contract as {@link ProductRepositoryPort#adjustStock}: the new
+     * quantity, or empty when the product does not exist or has too little
+     * stock. Only valid for hot products.
+     */
+    Optional<Integer> adjust(UUID productId, int delta);
+
+    /**
+     * Replaces the stock of a hot product, adjustments not yet written
+     * included, by journaling the difference. Empty when the product does not
+     * exist. Only valid for hot products; their rows must not be given a new
+     * stock directly.
+     */
+    Optional<Integer> set(UUID productId, int stock);
+
+    /**
+     * The stock including adjustments not yet written to the database, or
+     * empty when nothing is held in memory for the product.
+     */
+    Optional<Integer> currentStock(UUID productId);
+
+    /**
+     * Adjustments accepted since startup; changes whenever a stock held in
+     * memory does.
+     */
+    long adjustmentCount();
+}
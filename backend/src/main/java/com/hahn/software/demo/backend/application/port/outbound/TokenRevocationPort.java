@@ -0,0 +1,31 @@
+package com.hahn.software.demo.backend.application.port.outbound;
+
+import java.time.Instant;
+
+public interface TokenRevocationPort {
+    /**
+     * Revokes every token issued up to now that carries {@code id} as its
+     * token, session or user id. The record is kept until {@code expiresAt},
+     * by which time all such tokens have expired on their own.
+     */
+    void revoke(String id, Instant expiresAt);
+
+    /**
+     * Marks a single-use token as spent. Returns {@code false} if it already
+     * was, here or on another instance.
+     */
+    boolean consume(String tokenId, Instant expiresAt);
+
+    /**
+     * Whether a token issued at {@code issuedAt} was revoked through
+     * {@code id}. Token issue times have whole seconds, so only tokens from
+     * a second before the revocation's count as revoked.
+     */
+    boolean isRevoked(String id, Instant issuedAt);
+
+    /**
+     * Whether {@code id} was revoked at all, for ids that never carry a
+     * token issued after their revocation, such as an ended session.
+     */
+    boolean isRevoked(String id);
+}
@@ -9,9 +9,11 @@ import java.util.UUID;
 
 public interface UserRepositoryPort {
     User save(User user);
+    User insert(User user);
     Optional<User> findById(UUID id);
     Optional<User> findByEmail(String email);
     List<User> findAll();
     void deleteById(UUID id);
     boolean existsByEmail(String email);
+    void updatePasswordHash(String email, String passwordHash);
 }
@@ -0,0 +1,21 @@
+package com.hahn.software.demo.backend.domain.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.UUID;
+
+/**
+ * Published whenever a user row is written or removed, so anything holding
+ * a copy of that user can drop it, and tokens of deactivated users are
+ * revoked.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class UserChangedEvent {
+    private final UUID userId;
+    private final String email;
+    private final boolean active;
+}
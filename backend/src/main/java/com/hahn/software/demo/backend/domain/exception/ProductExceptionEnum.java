@@ -9,7 +9,13 @@ public enum ProductExceptionEnum {
     PRODUCT_NOT_FOUND("PRD-001", "Product not found"),
     INVALID_PRODUCT_DATA("PRD-002", "Invalid product data"),
     PRODUCT_IMAGE_UPLOAD_FAILED("PRD-003", "Failed to upload product image"),
-    PRODUCT_IMAGE_NOT_FOUND("PRD-004", "Product image not found");
+    PRODUCT_IMAGE_NOT_FOUND("PRD-004", "Product image not found"),
+    INVALID_CURSOR("PRD-005", "Invalid pagination cursor"),
+    PRODUCT_VERSION_CONFLICT("PRD-006", "Product was modified concurrently"),
+    INSUFFICIENT_STOCK("PRD-007", "Insufficient stock"),
+    IMAGE_TOO_LARGE("PRD-008", "Image exceeds the size limit"),
+    IMAGE_UPLOAD_BUSY("PRD-009", "Too many image uploads in progress"),
+    UNSUPPORTED_IMAGE_FORMAT("PRD-010", "Unsupported image format");
 
     private final String code;
     private final String message;
@@ -12,7 +12,9 @@ public enum UserExceptionEnum {
     INACTIVE_USER("114"),
     EMAIL_CHANGE_NOT_ALLOWED("115"),
     PROFILE_NOT_FOUND("116"),
-    INSTITUTION_NOT_FOUND("117");
+    INSTITUTION_NOT_FOUND("117"),
+    AUTHENTICATION_BUSY("118"),
+    INVALID_REFRESH_TOKEN("119");
 
     private final String code;
 }
@@ -1,10 +1,24 @@
 package com.hahn.software.demo.backend.domain.mapper;
 
 import com.hahn.software.demo.backend.domain.aggregate.Product;
+import com.hahn.software.demo.backend.domain.model.BatchItemResult;
+import com.hahn.software.demo.backend.domain.model.CursorPage;
+import com.hahn.software.demo.backend.domain.model.ProductField;
+import com.hahn.software.demo.backend.domain.model.ProductSearchCriteria;
+import com.hahn.software.demo.backend.domain.model.ProductSort;
+import com.hahn.software.demo.backend.domain.model.ProductSuggestion;
 import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.request.ProductRequest;
+import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.request.ProductSearchRequest;
+import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.request.ProductUpdateRequest;
+import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.response.BatchItemResponse;
+import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.response.BatchResponse;
+import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.response.PagedResponse;
 import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.response.ProductResponse;
+import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.response.ProductSuggestionResponse;
 
 import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class ProductDomainMapper {
@@ -19,6 +33,29 @@ public class ProductDomainMapper {
                 .build();
     }
 
+    public static Product toEntity(ProductUpdateRequest request) {
+        return Product.builder()
+                .id(request.getId())
+                .name(request.getName())
+                .description(request.getDescription())
+                .price(request.getPrice())
+                .stockQuantity(request.getStockQuantity())
+                .category(request.getCategory())
+                .version(request.getVersion())
+                .build();
+    }
+
+    public static ProductSearchCriteria toSearchCriteria(ProductSearchRequest request) {
+        return ProductSearchCriteria.builder()
+                .text(request.getQuery())
+                .category(request.getCategory())
+                .minPrice(request.getMinPrice())
+                .maxPrice(request.getMaxPrice())
+                .inStock(request.getInStock())
+                .sort(ProductSort.from(request.getSort()))
+                .build();
+    }
+
     public static ProductResponse toResponse(Product product) {
         return ProductResponse.builder()
                 .id(product.getId())
@@ -30,6 +67,7 @@ public class ProductDomainMapper {
                 .imageUrl(product.getImageUrl())
                 .createdAt(product.getCreatedAt())
                 .updatedAt(product.getUpdatedAt())
+                .version(product.getVersion())
                 .build();
     }
 
@@ -38,4 +76,66 @@ public class ProductDomainMapper {
                 .map(ProductDomainMapper::toResponse)
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Copies only the requested fields; the rest stay null and are left out
+     * of the JSON. Requests without {@code fields=} take the full mapping.
+     */
+    public static ProductResponse toResponse(Product product, Set<ProductField> fields) {
+        if (fields.containsAll(ProductField.ALL)) {
+            return toResponse(product);
+        }
+        ProductResponse.ProductResponseBuilder response = ProductResponse.builder().id(product.getId());
+        for (ProductField field : fields) {
+            switch (field) {
+                case NAME -> response.name(product.getName());
+                case DESCRIPTION -> response.description(product.getDescription());
+                case PRICE -> response.price(product.getPrice());
+                case STOCK_QUANTITY -> response.stockQuantity(product.getStockQuantity());
+                case CATEGORY -> response.category(product.getCategory());
+                case IMAGE_URL -> response.imageUrl(product.getImageUrl());
+                case CREATED_AT -> response.createdAt(product.getCreatedAt());
+                case UPDATED_AT -> response.updatedAt(product.getUpdatedAt());
+                case VERSION -> response.version(product.getVersion());
+                case ID -> { }
+            }
+        }
+        return response.build();
+    }
+
+    public static List<ProductSuggestionResponse> toSuggestionResponseList(List<ProductSuggestion> suggestions) {
+        return suggestions.stream()
+                .map(suggestion -> ProductSuggestionResponse.builder()
+                        .id(suggestion.getId())
+                        .name(suggestion.getName())
+                        .category(suggestion.getCategory())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    public static BatchResponse toBatchResponse(List<BatchItemResult> results) {
+        List<BatchItemResponse> items = results.stream()
+                .map(result -> BatchItemResponse.builder()
+                        .index(result.getIndex())
+                        .id(result.getId())
+                        .success(result.isSuccess())
+                        .code(result.getCode())
+                        .message(result.getMessage())
+                        .build())
+                .collect(Collectors.toList());
+        int succeeded = (int) results.stream().filter(BatchItemResult::isSuccess).count();
+        return new BatchResponse(succeeded, results.size() - succeeded, items);
+    }
+
+    public static <T> PagedResponse<T> toPagedResponse(CursorPage<Product> page, int size, boolean first,
+                                                       Function<List<Product>, List<T>> content) {
+        // Keyset pages carry no totals: counting the table would defeat the seek
+        PagedResponse<T> response = new PagedResponse<>();
+        response.setContent(content.apply(page.getContent()));
+        response.setSize(size);
+        response.setFirst(first);
+        response.setLast(!page.isHasNext());
+        response.setNextCursor(page.getNextCursor());
+        return response;
+    }
 }
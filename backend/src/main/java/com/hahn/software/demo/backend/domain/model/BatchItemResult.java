@@ -0,0 +1,32 @@
+package com.hahn.software.demo.backend.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Outcome of one item of a bulk operation, addressed by its position in the
+ * submitted list. Failed items carry the same codes as single-item errors.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResult {
+    private int index;
+    private UUID id;
+    private boolean success;
+    private String code;
+    private String message;
+
+    public static BatchItemResult succeeded(int index, UUID id) {
+        return new BatchItemResult(index, id, true, null, null);
+    }
+
+    public static BatchItemResult failed(int index, UUID id, String code, String message) {
+        return new BatchItemResult(index, id, false, code, message);
+    }
+}
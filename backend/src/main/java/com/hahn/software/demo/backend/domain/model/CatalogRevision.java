@@ -0,0 +1,20 @@
+package com.hahn.software.demo.backend.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Counter bumped by every committed transaction that creates, updates or
+ * deletes products, read without loading the catalog.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogRevision {
+    private long revision;
+    // Accepted by write-behind stock counters and possibly not in the rows yet
+    private long stockAdjustments;
+}
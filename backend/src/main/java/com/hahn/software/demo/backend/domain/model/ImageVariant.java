@@ -0,0 +1,36 @@
+package com.hahn.software.demo.backend.domain.model;
+
+import com.hahn.software.demo.backend.domain.exception.ProductException;
+import com.hahn.software.demo.backend.domain.exception.ProductExceptionEnum;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Sizes a product image is served in. Resized variants are bounded by
+ * {@code maxDimension} on their longest side; the original is stored as uploaded.
+ */
+@Getter
+@AllArgsConstructor
+public enum ImageVariant {
+    THUMBNAIL("thumb", 200),
+    MEDIUM("medium", 800),
+    ORIGINAL("original", 0);
+
+    private final String suffix;
+    private final int maxDimension;
+
+    public boolean isResized() {
+        return maxDimension > 0;
+    }
+
+    public static ImageVariant from(String value) {
+        for (ImageVariant variant : values()) {
+            if (variant.suffix.equalsIgnoreCase(value)) {
+                return variant;
+            }
+        }
+        throw new ProductException(
+                ProductExceptionEnum.INVALID_PRODUCT_DATA.getCode(),
+                "Unknown image size: " + value);
+    }
+}
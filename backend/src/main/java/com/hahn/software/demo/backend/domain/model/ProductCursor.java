@@ -0,0 +1,52 @@
+package com.hahn.software.demo.backend.domain.model;
+
+import com.hahn.software.demo.backend.domain.aggregate.Product;
+import com.hahn.software.demo.backend.domain.exception.ProductException;
+import com.hahn.software.demo.backend.domain.exception.ProductExceptionEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Seek position in the product catalog ordered by {@code (createdAt, id)}.
+ * Clients only ever see the opaque token produced by {@link #encode()}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductCursor {
+    private static final char SEPARATOR = '|';
+
+    private LocalDateTime createdAt;
+    private UUID id;
+
+    public static ProductCursor of(Product product) {
+        return new ProductCursor(product.getCreatedAt(), product.getId());
+    }
+
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new ProductCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new ProductException(
+                    ProductExceptionEnum.INVALID_CURSOR.getCode(),
+                    "Invalid pagination cursor");
+        }
+    }
+}
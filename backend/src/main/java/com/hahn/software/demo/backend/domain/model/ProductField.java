@@ -0,0 +1,62 @@
+package com.hahn.software.demo.backend.domain.model;
+
+import com.hahn.software.demo.backend.domain.exception.ProductException;
+import com.hahn.software.demo.backend.domain.exception.ProductExceptionEnum;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Product attributes a client can ask for with {@code fields=}. The
+ * property name is both the JSON field and the entity attribute, so a
+ * field list maps straight onto the selected columns.
+ */
+@Getter
+@AllArgsConstructor
+public enum ProductField {
+    ID("id"),
+    NAME("name"),
+    DESCRIPTION("description"),
+    PRICE("price"),
+    STOCK_QUANTITY("stockQuantity"),
+    CATEGORY("category"),
+    IMAGE_URL("imageUrl"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt"),
+    VERSION("version");
+
+    public static final Set<ProductField> ALL = Collections.unmodifiableSet(EnumSet.allOf(ProductField.class));
+
+    private final String property;
+
+    /**
+     * Parses a comma-separated field list such as {@code id,name,price}.
+     * No list means every field; {@code id} is always included.
+     */
+    public static Set<ProductField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<ProductField> parsed = EnumSet.of(ID);
+        for (String name : fields.split(",")) {
+            if (!name.isBlank()) {
+                parsed.add(fromProperty(name.trim()));
+            }
+        }
+        return parsed;
+    }
+
+    public static ProductField fromProperty(String property) {
+        for (ProductField field : values()) {
+            if (field.property.equalsIgnoreCase(property)) {
+                return field;
+            }
+        }
+        throw new ProductException(
+                ProductExceptionEnum.INVALID_PRODUCT_DATA.getCode(),
+                "Unknown product field: " + property);
+    }
+}
@@ -0,0 +1,24 @@
+package com.hahn.software.demo.backend.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * What changes whenever a product's representation does, read without
+ * loading the product.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductRevision {
+    private UUID id;
+    private LocalDateTime updatedAt;
+    private Long version;
+    private Integer stockQuantity;
+}
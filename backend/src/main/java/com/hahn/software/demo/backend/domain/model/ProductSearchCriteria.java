@@ -0,0 +1,26 @@
+package com.hahn.software.demo.backend.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Filters for product search. Every field is optional; unset fields do not
+ * constrain the result.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchCriteria {
+    private String text;
+    private String category;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Boolean inStock;
+    @Builder.Default
+    private ProductSort sort = ProductSort.NEWEST;
+}
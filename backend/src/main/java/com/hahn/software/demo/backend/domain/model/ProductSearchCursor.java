@@ -0,0 +1,67 @@
+package com.hahn.software.demo.backend.domain.model;
+
+import com.hahn.software.demo.backend.domain.aggregate.Product;
+import com.hahn.software.demo.backend.domain.exception.ProductException;
+import com.hahn.software.demo.backend.domain.exception.ProductExceptionEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Seek position in a search result ordered by {@code (sort key, id)}. The
+ * sort is part of the token so a cursor cannot be replayed against another
+ * ordering.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchCursor {
+    private static final char SEPARATOR = '|';
+
+    private ProductSort sort;
+    private Comparable<?> key;
+    private UUID id;
+
+    public static ProductSearchCursor of(ProductSort sort, Product product) {
+        Comparable<?> key = switch (sort.getProperty()) {
+            case "price" -> product.getPrice();
+            case "name" -> product.getName();
+            default -> product.getCreatedAt();
+        };
+        return new ProductSearchCursor(sort, key, product.getId());
+    }
+
+    public String encode() {
+        // The key goes last: names may contain the separator
+        String raw = sort.name() + SEPARATOR + id + SEPARATOR + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductSearchCursor decode(String token, ProductSort sort) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)
+                    .split("\\|", 3);
+            if (ProductSort.valueOf(parts[0]) != sort) {
+                throw new IllegalArgumentException("Cursor was issued for another sort");
+            }
+            Comparable<?> key = switch (sort.getProperty()) {
+                case "price" -> new BigDecimal(parts[2]);
+                case "name" -> parts[2];
+                default -> LocalDateTime.parse(parts[2]);
+            };
+            return new ProductSearchCursor(sort, key, UUID.fromString(parts[1]));
+        } catch (RuntimeException e) {
+            throw new ProductException(
+                    ProductExceptionEnum.INVALID_CURSOR.getCode(),
+                    "Invalid pagination cursor");
+        }
+    }
+}
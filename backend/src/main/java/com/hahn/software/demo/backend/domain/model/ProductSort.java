@@ -0,0 +1,39 @@
+package com.hahn.software.demo.backend.domain.model;
+
+import com.hahn.software.demo.backend.domain.exception.ProductException;
+import com.hahn.software.demo.backend.domain.exception.ProductExceptionEnum;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Locale;
+
+/**
+ * Orderings offered by product search. Each is tie-broken on {@code id} in
+ * the same direction so keyset pages never skip or repeat rows.
+ */
+@Getter
+@AllArgsConstructor
+public enum ProductSort {
+    NEWEST("createdAt", false),
+    OLDEST("createdAt", true),
+    PRICE_ASC("price", true),
+    PRICE_DESC("price", false),
+    NAME_ASC("name", true),
+    NAME_DESC("name", false);
+
+    private final String property;
+    private final boolean ascending;
+
+    public static ProductSort from(String value) {
+        if (value == null || value.isBlank()) {
+            return NEWEST;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ProductException(
+                    ProductExceptionEnum.INVALID_PRODUCT_DATA.getCode(),
+                    "Unsupported sort: " + value);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.hahn.software.demo.backend.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * An uploaded image already written to storage but not yet attached to a
+ * product. {@code imageUrl} is valid as soon as the image is staged.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StagedImage {
+    private UUID token;
+    private String imageUrl;
+}
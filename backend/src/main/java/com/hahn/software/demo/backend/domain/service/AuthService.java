@@ -2,37 +2,67 @@ package com.hahn.software.demo.backend.domain.service;
 
 
 import com.hahn.software.demo.backend.application.port.inbound.AuthServicePort;
+import com.hahn.software.demo.backend.application.port.outbound.TokenRevocationPort;
 import com.hahn.software.demo.backend.application.port.outbound.UserRepositoryPort;
 import com.hahn.software.demo.backend.domain.exception.EmailAlreadyExistsException;
-import com.hahn.software.demo.backend.infrastructure.config.security.CustomUserDetailsService;
+import com.hahn.software.demo.backend.domain.exception.UserException;
+import com.hahn.software.demo.backend.domain.exception.UserExceptionEnum;
+import com.hahn.software.demo.backend.infrastructure.config.security.AuthenticatedUser;
 import com.hahn.software.demo.backend.infrastructure.config.security.JwtUtils;
 import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.request.LoginRequest;
+import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.request.RefreshTokenRequest;
 import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.request.RegisterRequest;
 import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.response.AuthResponse;
-import lombok.RequiredArgsConstructor;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import com.hahn.software.demo.backend.domain.aggregate.User;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class AuthService implements AuthServicePort {
 
     private final AuthenticationManager authenticationManager;
     private final UserRepositoryPort userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtils jwtUtils;
-    private final CustomUserDetailsService userDetailsService;
+    private final TokenRevocationPort tokenRevocation;
+    private final Counter loginSuccesses;
+    private final Counter loginFailures;
+
+    public AuthService(AuthenticationManager authenticationManager,
+                       UserRepositoryPort userRepository,
+                       PasswordEncoder passwordEncoder,
+                       JwtUtils jwtUtils,
+                       TokenRevocationPort tokenRevocation,
+                       MeterRegistry meterRegistry) {
+        this.authenticationManager = authenticationManager;
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.jwtUtils = jwtUtils;
+        this.tokenRevocation = tokenRevocation;
+        this.loginSuccesses = loginCounter(meterRegistry, "success");
+        this.loginFailures = loginCounter(meterRegistry, "failure");
+    }
+
+    private static Counter loginCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("auth.logins")
+                .description("Login attempts by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 
     @Override
     public AuthResponse authenticateUser(LoginRequest loginRequest) {
@@ -41,17 +71,17 @@ public class AuthService implements AuthServicePort {
                     new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword()));
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            String jwt = jwtUtils.generateToken(userDetails);
-
-            User user = userRepository.findByEmail(userDetails.getUsername()).orElseThrow();
+            // The principal already carries the user loaded during authentication
+            AuthenticatedUser principal = (AuthenticatedUser) authentication.getPrincipal();
+            User user = principal.getUser();
 
-            return AuthResponse.builder()
-                    .token(jwt)
-                    .email(user.getEmail())
-                    .fullName(user.getFullName())
-                    .build();
+            loginSuccesses.increment();
+            return issueTokens(user, UUID.randomUUID().toString());
+        } catch (UserException e) {
+            // Raised when password hashing is saturated; surfaces as 429 rather than a failed login
+            throw e;
         } catch (Exception e) {
+            loginFailures.increment();
             log.error(e.getMessage());
         }
         return null;
@@ -59,8 +89,8 @@ public class AuthService implements AuthServicePort {
 
     @Override
     public AuthResponse registerUser(RegisterRequest registerRequest) {
-        // Check if email exists
-        if (userRepository.findByEmail(registerRequest.getEmail()).isPresent()) {
+        // Check if email exists, before paying for the password hash
+        if (userRepository.existsByEmail(registerRequest.getEmail())) {
             throw new EmailAlreadyExistsException("Email already exists");
         }
 
@@ -75,16 +105,72 @@ public class AuthService implements AuthServicePort {
                 .lastLogin(LocalDateTime.now())
                 .build();
 
-        User savedUser = userRepository.save(user);
+        User savedUser;
+        try {
+            savedUser = userRepository.insert(user);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent registration took the email after the check above
+            throw new EmailAlreadyExistsException("Email already exists");
+        }
+
+        // Generate JWT tokens
+        return issueTokens(savedUser, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchanges a refresh token for a new token pair in the same session.
+     * Each refresh token works once; presenting a spent one means a copy
+     * is in someone else's hands, so the whole session is revoked.
+     */
+    @Override
+    public AuthResponse refreshToken(RefreshTokenRequest refreshTokenRequest) {
+        Claims claims = jwtUtils.verify(refreshTokenRequest.getRefreshToken(), JwtUtils.TOKEN_USE_REFRESH);
+        if (claims == null) {
+            throw invalidRefreshToken();
+        }
+        String sessionId = claims.get(JwtUtils.CLAIM_SESSION_ID, String.class);
+        String userId = claims.get(JwtUtils.CLAIM_USER_ID, String.class);
+        Instant issuedAt = claims.getIssuedAt().toInstant();
+        if (tokenRevocation.isRevoked(sessionId) || tokenRevocation.isRevoked(userId, issuedAt)) {
+            throw invalidRefreshToken();
+        }
+        if (!tokenRevocation.consume(claims.getId(), claims.getExpiration().toInstant())) {
+            log.warn("Refresh token reused for user {}, revoking session {}", userId, sessionId);
+            revokeSession(sessionId);
+            throw invalidRefreshToken();
+        }
+
+        // Once per refresh rather than per request: picks up profile changes for the response
+        User user = userRepository.findById(UUID.fromString(userId))
+                .filter(User::isActive)
+                .orElseThrow(this::invalidRefreshToken);
+        return issueTokens(user, sessionId);
+    }
 
-        // Generate JWT token
-        UserDetails userDetails = userDetailsService.loadUserByUsername(savedUser.getEmail());
-        String jwt = jwtUtils.generateToken(userDetails);
+    @Override
+    public void logout(RefreshTokenRequest refreshTokenRequest) {
+        Claims claims = jwtUtils.verify(refreshTokenRequest.getRefreshToken(), JwtUtils.TOKEN_USE_REFRESH);
+        if (claims == null) {
+            throw invalidRefreshToken();
+        }
+        // Ends the access and refresh tokens of this login only, not the user's other sessions
+        revokeSession(claims.get(JwtUtils.CLAIM_SESSION_ID, String.class));
+    }
 
+    private AuthResponse issueTokens(User user, String sessionId) {
         return AuthResponse.builder()
-                .token(jwt)
-                .email(savedUser.getEmail())
-                .fullName(savedUser.getFullName())
+                .token(jwtUtils.generateAccessToken(user, sessionId))
+                .refreshToken(jwtUtils.generateRefreshToken(user, sessionId))
+                .email(user.getEmail())
+                .fullName(user.getFullName())
                 .build();
     }
+
+    private void revokeSession(String sessionId) {
+        tokenRevocation.revoke(sessionId, Instant.now().plusMillis(jwtUtils.getRefreshExpirationMs()));
+    }
+
+    private UserException invalidRefreshToken() {
+        return new UserException(UserExceptionEnum.INVALID_REFRESH_TOKEN.getCode());
+    }
 }
\ No newline at end of file
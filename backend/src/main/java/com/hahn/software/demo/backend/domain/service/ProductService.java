@@ -3,93 +3,231 @@ package com.hahn.software.demo.backend.domain.service;
 import com.hahn.software.demo.backend.application.port.inbound.ProductServicePort;
 import com.hahn.software.demo.backend.application.port.outbound.FileStoragePort;
 import com.hahn.software.demo.backend.application.port.outbound.ProductRepositoryPort;
+import com.hahn.software.demo.backend.application.port.outbound.ProductSuggestIndexPort;
+import com.hahn.software.demo.backend.application.port.outbound.StockCounterPort;
 import com.hahn.software.demo.backend.domain.aggregate.Product;
 import com.hahn.software.demo.backend.domain.exception.ProductException;
 import com.hahn.software.demo.backend.domain.exception.ProductExceptionEnum;
+import com.hahn.software.demo.backend.domain.model.BatchItemResult;
+import com.hahn.software.demo.backend.domain.model.CatalogRevision;
+import com.hahn.software.demo.backend.domain.model.CursorPage;
+import com.hahn.software.demo.backend.domain.model.ProductCursor;
+import com.hahn.software.demo.backend.domain.model.ProductField;
+import com.hahn.software.demo.backend.domain.model.ProductRevision;
+import com.hahn.software.demo.backend.domain.model.ProductSearchCriteria;
+import com.hahn.software.demo.backend.domain.model.ProductSearchCursor;
+import com.hahn.software.demo.backend.domain.model.ProductSuggestion;
+import com.hahn.software.demo.backend.domain.model.StagedImage;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ProductService implements ProductServicePort {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final int MAX_SUGGESTIONS = 20;
+    // Mirrors the products column definitions so invalid items are reported instead of failing the whole batch
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MAX_DESCRIPTION_LENGTH = 1000;
+    private static final int MAX_CATEGORY_LENGTH = 255;
+    private static final int MAX_PRICE_INTEGER_DIGITS = 17;
+
     private final ProductRepositoryPort productRepository;
     private final FileStoragePort fileStorage;
+    private final ProductSuggestIndexPort suggestIndex;
+    private final StockCounterPort stockCounter;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
-    @Transactional
     public Product createProduct(Product product, MultipartFile image) {
-        // Set new product details
-        product.setId(UUID.randomUUID());
-        product.setCreatedAt(LocalDateTime.now());
-        product.setUpdatedAt(LocalDateTime.now());
-
-        // Save product first to get the ID
-        Product savedProduct = productRepository.save(product);
-
-        // If image is provided, upload it and update the product with image URL
-        if (image != null && !image.isEmpty()) {
-            try {
-                String imageUrl = fileStorage.saveProductImage(savedProduct.getId(), image);
-                savedProduct.setImageUrl(imageUrl);
-                savedProduct = productRepository.save(savedProduct);
-            } catch (Exception e) {
-                throw new ProductException(ProductExceptionEnum.PRODUCT_IMAGE_UPLOAD_FAILED.getCode(),
-                        "Failed to upload image: " + e.getMessage());
-            }
-        }
+        // The image is written before the transaction starts, so no connection is held during disk I/O
+        StagedImage stagedImage = stageImage(image);
+        try {
+            return transactionTemplate.execute(status -> {
+                // Set new product details
+                product.setId(UUID.randomUUID());
+                product.setCreatedAt(LocalDateTime.now());
+                product.setUpdatedAt(LocalDateTime.now());
+                if (stagedImage != null) {
+                    product.setImageUrl(stagedImage.getImageUrl());
+                }
 
-        return savedProduct;
+                Product savedProduct = productRepository.save(product);
+                if (stagedImage != null) {
+                    fileStorage.attachProductImage(savedProduct.getId(), stagedImage);
+                }
+                suggestIndex.index(savedProduct);
+                return savedProduct;
+            });
+        } catch (RuntimeException e) {
+            discardStagedImage(stagedImage);
+            throw e;
+        }
     }
 
     @Override
-    @Transactional
     public Product updateProduct(UUID id, Product product, MultipartFile image) {
-        // Check if product exists
-        Product existingProduct = productRepository.findById(id)
-                .orElseThrow(() -> new ProductException(
-                        ProductExceptionEnum.PRODUCT_NOT_FOUND.getCode(),
-                        "Product with ID " + id + " not found"));
+        // The image is written before the transaction starts, so no connection is held during disk I/O
+        StagedImage stagedImage = stageImage(image);
+        boolean hot = stockCounter.isHot(id);
+        Product updated;
+        try {
+            updated = transactionTemplate.execute(status -> {
+                // Read under a row lock from the primary, bypassing the cache, so the edits are applied to
+                // the current row and its version is still current when the update is written
+                Product existingProduct = productRepository.findByIdForUpdate(id)
+                        .orElseThrow(() -> new ProductException(
+                                ProductExceptionEnum.PRODUCT_NOT_FOUND.getCode(),
+                                "Product with ID " + id + " not found"));
 
-        // Update product details
-        existingProduct.setName(product.getName());
-        existingProduct.setDescription(product.getDescription());
-        existingProduct.setPrice(product.getPrice());
-        existingProduct.setStockQuantity(product.getStockQuantity());
-        existingProduct.setCategory(product.getCategory());
-        existingProduct.setUpdatedAt(LocalDateTime.now());
-
-        // If image is provided, update it
-        if (image != null && !image.isEmpty()) {
-            try {
-                String imageUrl = fileStorage.saveProductImage(id, image);
-                existingProduct.setImageUrl(imageUrl);
-            } catch (Exception e) {
-                throw new ProductException(ProductExceptionEnum.PRODUCT_IMAGE_UPLOAD_FAILED.getCode(),
-                        "Failed to upload image: " + e.getMessage());
-            }
+                // Update product details
+                existingProduct.setName(product.getName());
+                existingProduct.setDescription(product.getDescription());
+                existingProduct.setPrice(product.getPrice());
+                // A hot product's row keeps its stock; the new value goes through the counter below
+                if (!hot) {
+                    existingProduct.setStockQuantity(product.getStockQuantity());
+                }
+                existingProduct.setCategory(product.getCategory());
+                existingProduct.setUpdatedAt(LocalDateTime.now());
+                // Saving a detached product compares its version with the row; a mismatch fails the update.
+                // Without a client version the update is unconditional and keeps the locked row's version
+                if (product.getVersion() != null) {
+                    existingProduct.setVersion(product.getVersion());
+                }
+                if (stagedImage != null) {
+                    existingProduct.setImageUrl(stagedImage.getImageUrl());
+                }
+
+                Product savedProduct = productRepository.save(existingProduct);
+                if (stagedImage != null) {
+                    fileStorage.attachProductImage(id, stagedImage);
+                }
+                suggestIndex.index(savedProduct);
+                return savedProduct;
+            });
+        } catch (RuntimeException e) {
+            discardStagedImage(stagedImage);
+            throw e;
         }
 
-        return productRepository.save(existingProduct);
+        if (hot) {
+            // Only once the rest of the update is committed, so a rolled-back update changes no stock
+            stockCounter.set(id, product.getStockQuantity());
+        }
+        return withCurrentStock(updated);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Product getProductById(UUID id) {
         return productRepository.findById(id)
+                .map(this::withCurrentStock)
                 .orElseThrow(() -> new ProductException(
                         ProductExceptionEnum.PRODUCT_NOT_FOUND.getCode(),
                         "Product with ID " + id + " not found"));
     }
 
     @Override
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
+    @Transactional(readOnly = true)
+    public ProductRevision getProductRevision(UUID id) {
+        ProductRevision revision = productRepository.findRevisionById(id)
+                .orElseThrow(() -> new ProductException(
+                        ProductExceptionEnum.PRODUCT_NOT_FOUND.getCode(),
+                        "Product with ID " + id + " not found"));
+        stockCounter.currentStock(id).ifPresent(revision::setStockQuantity);
+        return revision;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CatalogRevision getCatalogRevision() {
+        CatalogRevision revision = productRepository.findCatalogRevision();
+        revision.setStockAdjustments(stockCounter.adjustmentCount());
+        return revision;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Product> getAllProducts(Set<ProductField> fields) {
+        List<Product> products = productRepository.findAll(fields);
+        products.forEach(this::withCurrentStock);
+        return products;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Product> getProductsPage(String cursor, int size, Set<ProductField> fields) {
+        requirePageSize(size);
+
+        ProductCursor after = cursor == null || cursor.isBlank() ? null : ProductCursor.decode(cursor);
+        CursorPage<Product> page = productRepository.findPage(after, size, fields);
+        page.getContent().forEach(this::withCurrentStock);
+        return page;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Product> searchProducts(ProductSearchCriteria criteria, String cursor, int size,
+                                               Set<ProductField> fields) {
+        requirePageSize(size);
+        if (criteria.getMinPrice() != null && criteria.getMaxPrice() != null
+                && criteria.getMinPrice().compareTo(criteria.getMaxPrice()) > 0) {
+            throw new ProductException(
+                    ProductExceptionEnum.INVALID_PRODUCT_DATA.getCode(),
+                    "Minimum price must not exceed maximum price");
+        }
+
+        ProductSearchCursor after = cursor == null || cursor.isBlank()
+                ? null
+                : ProductSearchCursor.decode(cursor, criteria.getSort());
+        CursorPage<Product> page = productRepository.search(criteria, after, size, fields);
+        page.getContent().forEach(this::withCurrentStock);
+        return page;
+    }
+
+    @Override
+    public List<ProductSuggestion> suggestProducts(String query, int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new ProductException(
+                    ProductExceptionEnum.INVALID_PRODUCT_DATA.getCode(),
+                    "Limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+
+        return suggestIndex.suggest(query, limit);
+    }
+
+    private void requirePageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ProductException(
+                    ProductExceptionEnum.INVALID_PRODUCT_DATA.getCode(),
+                    "Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportProducts(Consumer<Product> sink) {
+        productRepository.forEach(product -> sink.accept(withCurrentStock(product)));
     }
 
     @Override
@@ -101,14 +239,202 @@ public class ProductService implements ProductServicePort {
                     "Product with ID " + id + " not found");
         }
 
-        // Delete product image if exists
+        // Removed from storage only once the delete commits
         fileStorage.deleteProductImage(id);
 
         // Delete product
         productRepository.deleteById(id);
+        suggestIndex.remove(id);
+    }
+
+    @Override
+    public int adjustStock(UUID id, int delta) {
+        if (delta == 0) {
+            throw new ProductException(
+                    ProductExceptionEnum.INVALID_PRODUCT_DATA.getCode(),
+                    "Stock adjustment must not be zero");
+        }
+
+        if (stockCounter.isHot(id)) {
+            // Accumulated in memory and written in batches; no row write per adjustment
+            return stockCounter.adjust(id, delta).orElseThrow(() -> stockAdjustmentFailed(id));
+        }
+        // Runs in the repository's own short transaction so the row lock is held for one statement
+        return productRepository.adjustStock(id, delta).orElseThrow(() -> stockAdjustmentFailed(id));
+    }
+
+    @Override
+    @Transactional
+    public List<BatchItemResult> createProducts(List<Product> products) {
+        requireBatchSize(products);
+
+        List<BatchItemResult> results = new ArrayList<>(products.size());
+        List<Product> valid = new ArrayList<>(products.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            String error = validate(product);
+            if (error != null) {
+                results.add(BatchItemResult.failed(i, null, ProductExceptionEnum.INVALID_PRODUCT_DATA.getCode(), error));
+                continue;
+            }
+
+            product.setId(UUID.randomUUID());
+            product.setImageUrl(null);
+            product.setCreatedAt(now);
+            product.setUpdatedAt(now);
+            valid.add(product);
+            results.add(BatchItemResult.succeeded(i, product.getId()));
+        }
+
+        productRepository.insertAll(valid);
+        valid.forEach(suggestIndex::index);
+        return results;
     }
 
     @Override
+    public List<BatchItemResult> updateProducts(List<Product> products) {
+        requireBatchSize(products);
+
+        Map<UUID, Integer> hotStock = new HashMap<>();
+        List<BatchItemResult> results = transactionTemplate.execute(status -> updateAll(products, hotStock));
+        // Only once the batch is committed, so a rejected batch changes no stock
+        hotStock.forEach(stockCounter::set);
+        return results;
+    }
+
+    private List<BatchItemResult> updateAll(List<Product> products, Map<UUID, Integer> hotStock) {
+        // One lookup for the whole batch instead of a findById per item
+        Map<UUID, Product> existing = productRepository.findAllById(products.stream()
+                        .filter(Objects::nonNull)
+                        .map(Product::getId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<BatchItemResult> results = new ArrayList<>(products.size());
+        List<Product> changed = new ArrayList<>(products.size());
+        Set<UUID> seen = new HashSet<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            UUID id = product == null ? null : product.getId();
+            String error = id == null ? "Product id is required"
+                    : !seen.add(id) ? "Product " + id + " appears more than once in the batch"
+                    : validate(product);
+            if (error != null) {
+                results.add(BatchItemResult.failed(i, id, ProductExceptionEnum.INVALID_PRODUCT_DATA.getCode(), error));
+                continue;
+            }
+
+            Product existingProduct = existing.get(id);
+            if (existingProduct == null) {
+                results.add(BatchItemResult.failed(i, id, ProductExceptionEnum.PRODUCT_NOT_FOUND.getCode(),
+                        "Product with ID " + id + " not found"));
+                continue;
+            }
+
+            existingProduct.setName(product.getName());
+            existingProduct.setDescription(product.getDescription());
+            existingProduct.setPrice(product.getPrice());
+            if (stockCounter.isHot(id)) {
+                // Null leaves the row's stock as it is; the new value goes through the counter
+                existingProduct.setStockQuantity(null);
+                hotStock.put(id, product.getStockQuantity());
+            } else {
+                existingProduct.setStockQuantity(product.getStockQuantity());
+            }
+            existingProduct.setCategory(product.getCategory());
+            existingProduct.setUpdatedAt(now);
+            // The repository rejects the batch if a given version no longer matches; null skips the check
+            existingProduct.setVersion(product.getVersion());
+            changed.add(existingProduct);
+            results.add(BatchItemResult.succeeded(i, id));
+        }
+
+        productRepository.updateAll(changed);
+        changed.forEach(suggestIndex::index);
+        return results;
+    }
+
+    @Override
+    @Transactional
+    public List<BatchItemResult> deleteProducts(List<UUID> ids) {
+        requireBatchSize(ids);
+
+        Set<UUID> existing = productRepository.findAllById(ids.stream()
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .map(Product::getId)
+                .collect(Collectors.toSet());
+
+        List<BatchItemResult> results = new ArrayList<>(ids.size());
+        Set<UUID> deleted = new HashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            UUID id = ids.get(i);
+            if (id == null) {
+                results.add(BatchItemResult.failed(i, null, ProductExceptionEnum.INVALID_PRODUCT_DATA.getCode(),
+                        "Product id is required"));
+            } else if (!existing.contains(id)) {
+                results.add(BatchItemResult.failed(i, id, ProductExceptionEnum.PRODUCT_NOT_FOUND.getCode(),
+                        "Product with ID " + id + " not found"));
+            } else if (!deleted.add(id)) {
+                results.add(BatchItemResult.failed(i, id, ProductExceptionEnum.INVALID_PRODUCT_DATA.getCode(),
+                        "Product " + id + " appears more than once in the batch"));
+            } else {
+                results.add(BatchItemResult.succeeded(i, id));
+            }
+        }
+
+        // Removed from storage only once the delete commits
+        deleted.forEach(fileStorage::deleteProductImage);
+
+        productRepository.deleteAllById(deleted);
+        deleted.forEach(suggestIndex::remove);
+        return results;
+    }
+
+    private void requireBatchSize(List<?> items) {
+        if (items == null || items.isEmpty() || items.size() > MAX_BATCH_SIZE) {
+            throw new ProductException(
+                    ProductExceptionEnum.INVALID_PRODUCT_DATA.getCode(),
+                    "Batch must contain between 1 and " + MAX_BATCH_SIZE + " items");
+        }
+    }
+
+    private String validate(Product product) {
+        if (product == null) {
+            return "Product is required";
+        }
+        if (product.getName() == null || product.getName().isBlank()) {
+            return "Name is required";
+        }
+        if (product.getName().length() > MAX_NAME_LENGTH) {
+            return "Name must be at most " + MAX_NAME_LENGTH + " characters";
+        }
+        if (product.getDescription() != null && product.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
+            return "Description must be at most " + MAX_DESCRIPTION_LENGTH + " characters";
+        }
+        if (product.getCategory() != null && product.getCategory().length() > MAX_CATEGORY_LENGTH) {
+            return "Category must be at most " + MAX_CATEGORY_LENGTH + " characters";
+        }
+        BigDecimal price = product.getPrice();
+        if (price == null || price.signum() < 0) {
+            return "Price must be zero or greater";
+        }
+        if (price.precision() - price.scale() > MAX_PRICE_INTEGER_DIGITS) {
+            return "Price is too large";
+        }
+        if (product.getStockQuantity() == null || product.getStockQuantity() < 0) {
+            return "Stock quantity must be zero or greater";
+        }
+        return null;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public String getImageUrl(UUID id) {
         if (!productRepository.existsById(id)) {
             throw new ProductException(
@@ -118,5 +444,45 @@ public class ProductService implements ProductServicePort {
 
         return fileStorage.getProductImageUrl(id);
     }
-}
 
+    private StagedImage stageImage(MultipartFile image) {
+        if (image == null || image.isEmpty()) {
+            return null;
+        }
+        try {
+            return fileStorage.stageProductImage(image);
+        } catch (ProductException e) {
+            // Refused uploads (size, format, busy) keep their own code and status
+            throw e;
+        } catch (Exception e) {
+            throw new ProductException(ProductExceptionEnum.PRODUCT_IMAGE_UPLOAD_FAILED.getCode(),
+                    "Failed to upload image: " + e.getMessage());
+        }
+    }
+
+    private void discardStagedImage(StagedImage stagedImage) {
+        if (stagedImage != null) {
+            fileStorage.discardStagedImage(stagedImage);
+        }
+    }
+
+    private ProductException stockAdjustmentFailed(UUID id) {
+        return productRepository.existsById(id)
+                ? new ProductException(
+                        ProductExceptionEnum.INSUFFICIENT_STOCK.getCode(),
+                        "Insufficient stock for product " + id)
+                : new ProductException(
+                        ProductExceptionEnum.PRODUCT_NOT_FOUND.getCode(),
+                        "Product with ID " + id + " not found");
+    }
+
+    /**
+     * Hot products may have adjustments not yet written to the database.
+     */
+    private Product withCurrentStock(Product product) {
+        if (product.getStockQuantity() != null) {
+            stockCounter.currentStock(product.getId()).ifPresent(product::setStockQuantity);
+        }
+        return product;
+    }
+}
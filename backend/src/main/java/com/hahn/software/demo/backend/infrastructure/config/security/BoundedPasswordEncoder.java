@@ -0,0 +1,34 @@
+package com.hahn.software.demo.backend.infrastructure.config.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Moves the wrapped encoder's hashing onto the {@link PasswordHashingExecutor}
+ * so it never runs on a request thread.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final PasswordHashingExecutor executor;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, PasswordHashingExecutor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executor.run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executor.run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Only inspects the stored hash; cheap enough for the caller's thread
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -1,36 +1,39 @@
 package com.hahn.software.demo.backend.infrastructure.config.security;
 
-import com.hahn.software.demo.backend.infrastructure.output.persistence.entity.UserEntity;
-import com.hahn.software.demo.backend.infrastructure.output.persistence.repository.UserJpaRepository;
+import com.hahn.software.demo.backend.application.port.outbound.UserRepositoryPort;
+import com.hahn.software.demo.backend.domain.aggregate.User;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-
-import java.util.Collections;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
-    private final UserJpaRepository userRepository;
+    private final UserRepositoryPort userRepository;
 
     @Override
-    public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        UserEntity user = userRepository.findByEmail(email)
+    @Transactional(readOnly = true)
+    public AuthenticatedUser loadUserByUsername(String email) throws UsernameNotFoundException {
+        return userRepository.findByEmail(email)
+                .map(AuthenticatedUser::new)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+    }
 
-        return new User(
-                user.getEmail(),
-                user.getPasswordHash(),
-                user.isActive(),
-                true,
-                true,
-                true,
-                Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))
-        );
+    /**
+     * Stores a re-encoded hash after a successful login, so hashes move to
+     * the current encoder and strength without a password reset.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePasswordHash(user.getUsername(), newPassword);
+        // Always one of ours: DaoAuthenticationProvider passes back what loadUserByUsername returned
+        User updated = ((AuthenticatedUser) user).getUser().toBuilder().passwordHash(newPassword).build();
+        return new AuthenticatedUser(updated);
     }
-} 
\ No newline at end of file
+}
@@ -1,5 +1,8 @@
 package com.hahn.software.demo.backend.infrastructure.config.security;
 
+import com.hahn.software.demo.backend.application.port.outbound.TokenRevocationPort;
+import com.hahn.software.demo.backend.domain.aggregate.User;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,19 +11,20 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.util.UUID;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;
-    private final CustomUserDetailsService userDetailsService;
+    private final TokenRevocationPort tokenRevocation;
 
     @Override
     protected void doFilterInternal(
@@ -36,23 +40,41 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        userEmail = jwtUtils.extractUsername(jwt);
+        // Verified once per request; refresh tokens are not accepted here
+        Claims claims = jwtUtils.verify(jwt, JwtUtils.TOKEN_USE_ACCESS);
+        if (claims == null || isRevoked(claims)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        userEmail = claims.getSubject();
 
         if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-            
-            if (jwtUtils.validateToken(jwt)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities()
-                );
-                authToken.setDetails(
-                        new WebAuthenticationDetailsSource().buildDetails(request)
-                );
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+            // Built from the token alone; deactivation reaches it through the revocation check
+            AuthenticatedUser userDetails = new AuthenticatedUser(User.builder()
+                    .id(UUID.fromString(claims.get(JwtUtils.CLAIM_USER_ID, String.class)))
+                    .email(userEmail)
+                    .isActive(true)
+                    .build());
+
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                    userDetails,
+                    null,
+                    userDetails.getAuthorities()
+            );
+            authToken.setDetails(
+                    new WebAuthenticationDetailsSource().buildDetails(request)
+            );
+            SecurityContextHolder.getContext().setAuthentication(authToken);
         }
         filterChain.doFilter(request, response);
     }
-} 
\ No newline at end of file
+
+    private boolean isRevoked(Claims claims) {
+        Instant issuedAt = claims.getIssuedAt().toInstant();
+        // An ended session issues no further tokens, so all of its tokens are revoked regardless of issue time
+        return tokenRevocation.isRevoked(claims.get(JwtUtils.CLAIM_SESSION_ID, String.class))
+                || tokenRevocation.isRevoked(claims.getId(), issuedAt)
+                || tokenRevocation.isRevoked(claims.get(JwtUtils.CLAIM_USER_ID, String.class), issuedAt);
+    }
+}
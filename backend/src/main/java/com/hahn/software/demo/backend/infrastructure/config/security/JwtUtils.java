@@ -1,82 +1,143 @@
 package com.hahn.software.demo.backend.infrastructure.config.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
-import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.HttpServletRequest;
+import com.hahn.software.demo.backend.domain.aggregate.User;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtUtils {
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_SESSION_ID = "sid";
+    public static final String CLAIM_TOKEN_USE = "use";
+    public static final String TOKEN_USE_ACCESS = "access";
+    public static final String TOKEN_USE_REFRESH = "refresh";
 
-    @Value("${jwt.expiration}")
-    private int jwtExpirationMs;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final int jwtExpirationMs;
+    private final long refreshExpirationMs;
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+    // Tokens whose signature was already checked, kept until the token itself expires
+    private final Cache<String, Claims> verifiedTokens;
+    private final Timer cachedVerifyTimer;
+    private final Timer signatureVerifyTimer;
+
+    public JwtUtils(
+            @Value("${jwt.secret}") String jwtSecret,
+            @Value("${jwt.expiration}") int jwtExpirationMs,
+            @Value("${jwt.refresh-expiration:1209600000}") long refreshExpirationMs,
+            @Value("${jwt.verified-cache.maximum-size:10000}") long verifiedCacheSize,
+            MeterRegistry meterRegistry) {
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.refreshExpirationMs = refreshExpirationMs;
+        this.verifiedTokens = verifiedCacheSize > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(verifiedCacheSize)
+                        .expireAfter(new TokenExpiry())
+                        .build()
+                : null;
+        this.cachedVerifyTimer = verifyTimer(meterRegistry, "hit");
+        this.signatureVerifyTimer = verifyTimer(meterRegistry, "miss");
     }
 
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private static Timer verifyTimer(MeterRegistry meterRegistry, String cache) {
+        return Timer.builder("jwt.verify")
+                .description("Time to verify a bearer token, from the cache or by checking its signature")
+                .tag("cache", cache)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    /**
+     * Verifies the token signature and expiry and returns its claims, or
+     * {@code null} if the token is not acceptable. Tokens seen recently are
+     * answered from memory without repeating the HMAC check.
+     */
+    public Claims verify(String token) {
+        long start = System.nanoTime();
+        if (verifiedTokens != null) {
+            Claims cached = verifiedTokens.getIfPresent(token);
+            if (cached != null) {
+                cachedVerifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return cached;
+            }
+        }
+
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            if (verifiedTokens != null) {
+                verifiedTokens.put(token, claims);
+            }
+            return claims;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        } finally {
+            signatureVerifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * Short-lived token presented on every request. It carries everything
+     * the filter needs to build the principal, so requests do not read the
+     * user table.
+     */
+    public String generateAccessToken(User user, String sessionId) {
+        return createToken(user, sessionId, TOKEN_USE_ACCESS, jwtExpirationMs);
     }
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Single-use token exchanged for a new access and refresh token pair.
+     * All tokens of one login share {@code sessionId}, so the session can
+     * be revoked as a whole.
+     */
+    public String generateRefreshToken(User user, String sessionId) {
+        return createToken(user, sessionId, TOKEN_USE_REFRESH, refreshExpirationMs);
     }
 
-    public String generateToken(UserDetails userDetails) {
-        Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, userDetails.getUsername());
+    public long getRefreshExpirationMs() {
+        return refreshExpirationMs;
     }
 
-    private String createToken(Map<String, Object> claims, String subject) {
+    private String createToken(User user, String sessionId, String use, long expirationMs) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
-                .claims(claims)
-                .subject(subject)
-                .issuedAt(new Date())
-                .expiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(getSigningKey())
+                .id(UUID.randomUUID().toString())
+                .subject(user.getEmail())
+                .claim(CLAIM_USER_ID, user.getId().toString())
+                .claim(CLAIM_SESSION_ID, sessionId)
+                .claim(CLAIM_TOKEN_USE, use)
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expirationMs))
+                .signWith(signingKey)
                 .compact();
     }
 
-    public boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token);
-            return true;
-        } catch (SignatureException | MalformedJwtException | ExpiredJwtException |
-                 UnsupportedJwtException | IllegalArgumentException e) {
-            return false;
-        }
+    /**
+     * Claims of {@code token} if it is a valid token of the given use
+     * ({@link #TOKEN_USE_ACCESS} or {@link #TOKEN_USE_REFRESH}), otherwise
+     * {@code null}.
+     */
+    public Claims verify(String token, String use) {
+        Claims claims = verify(token);
+        return claims != null && use.equals(claims.get(CLAIM_TOKEN_USE)) ? claims : null;
     }
 
     public String getJwtFromRequest(HttpServletRequest request) {
@@ -86,4 +147,26 @@ public class JwtUtils {
         }
         return null;
     }
-} 
\ No newline at end of file
+
+    private static class TokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String token, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return 0;
+            }
+            return Math.max(0, TimeUnit.MILLISECONDS.toNanos(expiration.getTime() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
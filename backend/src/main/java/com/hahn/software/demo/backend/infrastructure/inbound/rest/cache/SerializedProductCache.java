@@ -0,0 +1,86 @@
+package com.hahn.software.demo.backend.infrastructure.inbound.rest.cache;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hahn.software.demo.backend.domain.aggregate.Product;
+import com.hahn.software.demo.backend.domain.mapper.ProductDomainMapper;
+import com.hahn.software.demo.backend.domain.model.ProductField;
+import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.response.SerializedJson;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Product responses serialized to JSON once per product state and field
+ * selection, so read endpoints copy bytes instead of running Jackson per
+ * product per request. The key carries {@code updatedAt}, {@code version}
+ * and the stock shown, so any change produces a new entry and stale ones
+ * simply age out. Projections that leave out {@code updatedAt} or
+ * {@code version} cannot be told apart from a stale copy and are serialized
+ * every time. Fields left out by a projection are omitted rather than sent
+ * as null; full responses keep their nulls. Bounded by serialized size;
+ * published as {@code cache.*{cache="product-responses"}}.
+ */
+@Component
+public class SerializedProductCache {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper projectionMapper;
+    private final Cache<Key, SerializedJson> cache;
+
+    public SerializedProductCache(ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.cache.product-responses.maximum-size:32MB}") DataSize maximumSize,
+                                  @Value("${app.cache.product-responses.ttl:10m}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.projectionMapper = objectMapper.copy().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        this.cache = Caffeine.newBuilder()
+                // The string and its encoded bytes are both kept
+                .maximumWeight(maximumSize.toBytes())
+                .weigher((Key key, SerializedJson json) -> 2 * json.byteSize())
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "product-responses");
+    }
+
+    public SerializedJson get(Product product, Set<ProductField> fields) {
+        if (product.getUpdatedAt() == null || product.getVersion() == null) {
+            return serialize(product, fields);
+        }
+        Key key = new Key(product.getId(), product.getUpdatedAt(), product.getVersion(),
+                product.getStockQuantity(), fields);
+        return cache.get(key, ignored -> serialize(product, fields));
+    }
+
+    public List<SerializedJson> getAll(List<Product> products, Set<ProductField> fields) {
+        return products.stream()
+                .map(product -> get(product, fields))
+                .toList();
+    }
+
+    private SerializedJson serialize(Product product, Set<ProductField> fields) {
+        try {
+            ObjectMapper mapper = fields.containsAll(ProductField.ALL) ? objectMapper : projectionMapper;
+            return SerializedJson.of(mapper, ProductDomainMapper.toResponse(product, fields));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Key(UUID id, LocalDateTime updatedAt, Long version, Integer stockQuantity,
+                       Set<ProductField> fields) {
+    }
+}
@@ -1,23 +1,54 @@
 package com.hahn.software.demo.backend.infrastructure.inbound.rest.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hahn.software.demo.backend.application.port.inbound.ProductServicePort;
 import com.hahn.software.demo.backend.domain.aggregate.Product;
+import com.hahn.software.demo.backend.domain.model.BatchItemResult;
+import com.hahn.software.demo.backend.domain.model.CatalogRevision;
+import com.hahn.software.demo.backend.domain.model.CursorPage;
+import com.hahn.software.demo.backend.domain.model.ProductField;
+import com.hahn.software.demo.backend.domain.model.ProductRevision;
 import com.hahn.software.demo.backend.domain.mapper.ProductDomainMapper;
+import com.hahn.software.demo.backend.infrastructure.inbound.rest.cache.SerializedProductCache;
 import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.request.CustomRequestBody;
+import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.request.PaginationRequest;
 import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.request.ProductRequest;
+import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.request.ProductSearchRequest;
+import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.request.ProductUpdateRequest;
 import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.request.ReferenceData;
+import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.request.StockAdjustmentRequest;
+import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.request.SuggestRequest;
+import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.response.BatchResponse;
+import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.response.PagedResponse;
 import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.response.ProductResponse;
+import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.response.ProductSuggestionResponse;
 import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.response.ResponseBody;
+import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.response.SerializedJson;
+import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.response.StockAdjustmentResponse;
+import com.hahn.software.demo.backend.infrastructure.inbound.rest.export.ProductExportFormat;
+import com.hahn.software.demo.backend.infrastructure.inbound.rest.export.ProductExportWriter;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
@@ -25,7 +56,16 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class ProductController {
 
+    // GET reads carry the reference data in headers so the URL alone identifies a cacheable response
+    private static final String DEVICE_ID_HEADER = "X-Device-Id";
+    private static final String LANG_HEADER = "X-Lang";
+
     private final ProductServicePort productService;
+    private final ObjectMapper objectMapper;
+    private final SerializedProductCache serializedProducts;
+
+    @Value("${app.cache.http.products.max-age:0s}")
+    private Duration httpMaxAge;
 
     @PostMapping(value = "/create", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<ResponseBody<ProductResponse, ReferenceData>> createProduct(
@@ -67,6 +107,7 @@ public class ProductController {
             @RequestParam("price") BigDecimal price,
             @RequestParam("stockQuantity") Integer stockQuantity,
             @RequestParam("category") String category,
+            @RequestParam(value = "version", required = false) Long version,
             @RequestParam("deviceId") String deviceId,
             @RequestParam("lang") String lang,
             @RequestParam("channel") String channel,
@@ -89,6 +130,7 @@ public class ProductController {
                 .build();
 
         Product product = ProductDomainMapper.toEntity(productRequest);
+        product.setVersion(version);
         Product updatedProduct = productService.updateProduct(id, product, image);
 
         ResponseBody<ProductResponse, ReferenceData> responseBody =
@@ -102,19 +144,99 @@ public class ProductController {
         return ResponseEntity.ok(responseBody);
     }
 
+    @PostMapping("/stock/{id}")
+    public ResponseEntity<ResponseBody<StockAdjustmentResponse, ReferenceData>> adjustStock(
+            @PathVariable UUID id,
+            @Valid @RequestBody CustomRequestBody<StockAdjustmentRequest, ReferenceData> requestBody) {
+
+        ReferenceData referenceData = requestBody.getReferenceData();
+        int stockQuantity = productService.adjustStock(id, requestBody.getRequestData().getDelta());
+
+        ResponseBody<StockAdjustmentResponse, ReferenceData> responseBody =
+                new ResponseBody<>(
+                        "000",
+                        "Stock adjusted successfully",
+                        new StockAdjustmentResponse(id, stockQuantity),
+                        referenceData
+                );
+
+        return ResponseEntity.ok(responseBody);
+    }
+
+    @PostMapping("/batch/create")
+    public ResponseEntity<ResponseBody<BatchResponse, ReferenceData>> createProducts(
+            @Valid @RequestBody CustomRequestBody<List<ProductRequest>, ReferenceData> requestBody) {
+
+        ReferenceData referenceData = requestBody.getReferenceData();
+        List<Product> products = requestBody.getRequestData().stream()
+                .map(request -> request == null ? null : ProductDomainMapper.toEntity(request))
+                .toList();
+        List<BatchItemResult> results = productService.createProducts(products);
+
+        ResponseBody<BatchResponse, ReferenceData> responseBody =
+                new ResponseBody<>(
+                        "000",
+                        "Batch create processed",
+                        ProductDomainMapper.toBatchResponse(results),
+                        referenceData
+                );
+
+        return ResponseEntity.ok(responseBody);
+    }
+
+    @PostMapping("/batch/update")
+    public ResponseEntity<ResponseBody<BatchResponse, ReferenceData>> updateProducts(
+            @Valid @RequestBody CustomRequestBody<List<ProductUpdateRequest>, ReferenceData> requestBody) {
+
+        ReferenceData referenceData = requestBody.getReferenceData();
+        List<Product> products = requestBody.getRequestData().stream()
+                .map(request -> request == null ? null : ProductDomainMapper.toEntity(request))
+                .toList();
+        List<BatchItemResult> results = productService.updateProducts(products);
+
+        ResponseBody<BatchResponse, ReferenceData> responseBody =
+                new ResponseBody<>(
+                        "000",
+                        "Batch update processed",
+                        ProductDomainMapper.toBatchResponse(results),
+                        referenceData
+                );
+
+        return ResponseEntity.ok(responseBody);
+    }
+
+    @PostMapping("/batch/delete")
+    public ResponseEntity<ResponseBody<BatchResponse, ReferenceData>> deleteProducts(
+            @Valid @RequestBody CustomRequestBody<List<UUID>, ReferenceData> requestBody) {
+
+        ReferenceData referenceData = requestBody.getReferenceData();
+        List<BatchItemResult> results = productService.deleteProducts(requestBody.getRequestData());
+
+        ResponseBody<BatchResponse, ReferenceData> responseBody =
+                new ResponseBody<>(
+                        "000",
+                        "Batch delete processed",
+                        ProductDomainMapper.toBatchResponse(results),
+                        referenceData
+                );
+
+        return ResponseEntity.ok(responseBody);
+    }
+
     @PostMapping("/get/{id}")
-    public ResponseEntity<ResponseBody<ProductResponse, ReferenceData>> getProductById(
+    public ResponseEntity<ResponseBody<SerializedJson, ReferenceData>> getProductById(
             @PathVariable UUID id,
+            @RequestParam(value = "fields", required = false) String fields,
             @Valid @RequestBody CustomRequestBody<Object, ReferenceData> requestBody) {
 
         ReferenceData referenceData = requestBody.getReferenceData();
         Product product = productService.getProductById(id);
 
-        ResponseBody<ProductResponse, ReferenceData> responseBody =
+        ResponseBody<SerializedJson, ReferenceData> responseBody =
                 new ResponseBody<>(
                         "000",
                         "Product retrieved successfully",
-                        ProductDomainMapper.toResponse(product),
+                        serializedProducts.get(product, ProductField.parse(fields)),
                         referenceData
                 );
 
@@ -122,23 +244,171 @@ public class ProductController {
     }
 
     @PostMapping("/get/all")
-    public ResponseEntity<ResponseBody<List<ProductResponse>, ReferenceData>> getAllProducts(
+    public ResponseEntity<ResponseBody<List<SerializedJson>, ReferenceData>> getAllProducts(
+            @RequestParam(value = "fields", required = false) String fields,
             @Valid @RequestBody CustomRequestBody<Object, ReferenceData> requestBody) {
 
         ReferenceData referenceData = requestBody.getReferenceData();
-        List<Product> products = productService.getAllProducts();
+        Set<ProductField> selected = ProductField.parse(fields);
+        List<Product> products = productService.getAllProducts(selected);
+
+        ResponseBody<List<SerializedJson>, ReferenceData> responseBody =
+                new ResponseBody<>(
+                        "000",
+                        "Products retrieved successfully",
+                        serializedProducts.getAll(products, selected),
+                        referenceData
+                );
+
+        return ResponseEntity.ok(responseBody);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ResponseBody<SerializedJson, ReferenceData>> getProduct(
+            @PathVariable UUID id,
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestHeader(DEVICE_ID_HEADER) String deviceId,
+            @RequestHeader(LANG_HEADER) String lang,
+            WebRequest request,
+            HttpServletResponse response) {
+
+        ReferenceData referenceData = new ReferenceData(deviceId, lang);
+        Set<ProductField> selected = ProductField.parse(fields);
+        // Validated against the revision alone; the product is only loaded for a full response
+        ProductRevision revision = productService.getProductRevision(id);
+        if (notModified(request, response, selected, referenceData,
+                id, revision.getUpdatedAt(), revision.getVersion(), revision.getStockQuantity())) {
+            return null;
+        }
+        Product product = productService.getProductById(id);
+
+        ResponseBody<SerializedJson, ReferenceData> responseBody =
+                new ResponseBody<>(
+                        "000",
+                        "Product retrieved successfully",
+                        serializedProducts.get(product, selected),
+                        referenceData
+                );
+
+        return ResponseEntity.ok(responseBody);
+    }
+
+    /**
+     * Cacheable mirror of {@code POST /get/all}, so it returns the whole
+     * catalog as that endpoint does; clients that need bounded reads use the
+     * cursor pages at {@code /get/page}. Revalidation costs one counter lookup
+     * and the catalog is only loaded when it has changed.
+     */
+    @GetMapping
+    public ResponseEntity<ResponseBody<List<SerializedJson>, ReferenceData>> getProducts(
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestHeader(DEVICE_ID_HEADER) String deviceId,
+            @RequestHeader(LANG_HEADER) String lang,
+            WebRequest request,
+            HttpServletResponse response) {
+
+        ReferenceData referenceData = new ReferenceData(deviceId, lang);
+        Set<ProductField> selected = ProductField.parse(fields);
+        // Read before the products: a change in between costs one extra 200 later, never a stale 304
+        CatalogRevision revision = productService.getCatalogRevision();
+        if (notModified(request, response, selected, referenceData,
+                revision.getRevision(), revision.getStockAdjustments())) {
+            return null;
+        }
+        List<Product> products = productService.getAllProducts(selected);
+
+        ResponseBody<List<SerializedJson>, ReferenceData> responseBody =
+                new ResponseBody<>(
+                        "000",
+                        "Products retrieved successfully",
+                        serializedProducts.getAll(products, selected),
+                        referenceData
+                );
+
+        return ResponseEntity.ok(responseBody);
+    }
+
+    @PostMapping("/get/page")
+    public ResponseEntity<ResponseBody<PagedResponse<SerializedJson>, ReferenceData>> getProductsPage(
+            @RequestParam(value = "fields", required = false) String fields,
+            @Valid @RequestBody CustomRequestBody<PaginationRequest, ReferenceData> requestBody) {
+
+        PaginationRequest pagination = requestBody.getRequestData();
+        ReferenceData referenceData = requestBody.getReferenceData();
+        Set<ProductField> selected = ProductField.parse(fields);
+        CursorPage<Product> page = productService.getProductsPage(pagination.getCursor(), pagination.getSize(), selected);
 
-        ResponseBody<List<ProductResponse>, ReferenceData> responseBody =
+        ResponseBody<PagedResponse<SerializedJson>, ReferenceData> responseBody =
                 new ResponseBody<>(
                         "000",
                         "Products retrieved successfully",
-                        ProductDomainMapper.toResponseList(products),
+                        ProductDomainMapper.toPagedResponse(page, pagination.getSize(), !StringUtils.hasText(pagination.getCursor()),
+                                products -> serializedProducts.getAll(products, selected)),
                         referenceData
                 );
 
         return ResponseEntity.ok(responseBody);
     }
 
+    @PostMapping("/search")
+    public ResponseEntity<ResponseBody<PagedResponse<SerializedJson>, ReferenceData>> searchProducts(
+            @RequestParam(value = "fields", required = false) String fields,
+            @Valid @RequestBody CustomRequestBody<ProductSearchRequest, ReferenceData> requestBody) {
+
+        ProductSearchRequest search = requestBody.getRequestData();
+        ReferenceData referenceData = requestBody.getReferenceData();
+        Set<ProductField> selected = ProductField.parse(fields);
+        CursorPage<Product> page = productService.searchProducts(
+                ProductDomainMapper.toSearchCriteria(search), search.getCursor(), search.getSize(), selected);
+
+        ResponseBody<PagedResponse<SerializedJson>, ReferenceData> responseBody =
+                new ResponseBody<>(
+                        "000",
+                        "Products retrieved successfully",
+                        ProductDomainMapper.toPagedResponse(page, search.getSize(), !StringUtils.hasText(search.getCursor()),
+                                products -> serializedProducts.getAll(products, selected)),
+                        referenceData
+                );
+
+        return ResponseEntity.ok(responseBody);
+    }
+
+    @PostMapping("/suggest")
+    public ResponseEntity<ResponseBody<List<ProductSuggestionResponse>, ReferenceData>> suggestProducts(
+            @Valid @RequestBody CustomRequestBody<SuggestRequest, ReferenceData> requestBody) {
+
+        SuggestRequest suggest = requestBody.getRequestData();
+        ReferenceData referenceData = requestBody.getReferenceData();
+
+        // Served from memory; no database round trip per keystroke
+        ResponseBody<List<ProductSuggestionResponse>, ReferenceData> responseBody =
+                new ResponseBody<>(
+                        "000",
+                        "Suggestions retrieved successfully",
+                        ProductDomainMapper.toSuggestionResponseList(
+                                productService.suggestProducts(suggest.getQuery(), suggest.getLimit())),
+                        referenceData
+                );
+
+        return ResponseEntity.ok(responseBody);
+    }
+
+    @GetMapping("/export")
+    public void exportProducts(
+            @RequestParam(value = "format", defaultValue = "ndjson") String format,
+            HttpServletResponse response) throws IOException {
+
+        ProductExportFormat exportFormat = ProductExportFormat.from(format);
+        response.setContentType(exportFormat.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"products." + exportFormat.getExtension() + "\"");
+
+        // Rows are written as they are read, so nothing is buffered beyond the servlet output buffer
+        try (ProductExportWriter writer = exportFormat.open(response.getOutputStream(), objectMapper)) {
+            productService.exportProducts(product -> writer.write(ProductDomainMapper.toResponse(product)));
+        }
+    }
+
     @PostMapping("/delete/{id}")
     public ResponseEntity<ResponseBody<Void, ReferenceData>> deleteProduct(
             @PathVariable UUID id,
@@ -157,4 +427,27 @@ public class ProductController {
 
         return ResponseEntity.ok(responseBody);
     }
+
+    /**
+     * Sets the caching headers and answers a matching {@code If-None-Match}
+     * with 304. The ETag is weak, so gzip-encoded and plain bodies share it,
+     * and covers the field selection and reference data along with
+     * {@code revision}, which the body echoes.
+     */
+    private boolean notModified(WebRequest request, HttpServletResponse response, Set<ProductField> fields,
+                                ReferenceData referenceData, Object... revision) {
+        // These reads require authentication, so only the caller's own cache may keep them; shared
+        // caches would hand them to requests the origin never authenticated
+        CacheControl cacheControl = httpMaxAge.isZero()
+                ? CacheControl.noCache().cachePrivate()
+                : CacheControl.maxAge(httpMaxAge).cachePrivate().mustRevalidate();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        response.setHeader(HttpHeaders.VARY, String.join(", ",
+                HttpHeaders.AUTHORIZATION, DEVICE_ID_HEADER, LANG_HEADER));
+
+        String validator = fields + "|" + referenceData.getDeviceId() + "|"
+                + referenceData.getLang() + "|" + Arrays.toString(revision);
+        String etag = "W/\"" + DigestUtils.md5DigestAsHex(validator.getBytes(StandardCharsets.UTF_8)) + "\"";
+        return request.checkNotModified(etag);
+    }
 }
@@ -1,59 +1,203 @@
 package com.hahn.software.demo.backend.infrastructure.inbound.rest.controller;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import com.hahn.software.demo.backend.domain.model.ImageVariant;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.image.ContentAddressedImageStore;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.image.ImageStorageMetrics;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.image.ImageVariantProcessor;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.HttpRange;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
-import java.net.MalformedURLException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/products/images")
 public class ProductImageController {
 
-    @Value("${app.file-storage.upload-dir:uploads}")
-    private String uploadDir;
+    // Tomcat hands the file to the kernel (sendfile) when these request attributes are set
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
 
-    @GetMapping("/{fileName:.+}")
-    public ResponseEntity<Resource> getImage(@PathVariable String fileName) {
-        try {
-            Path filePath = Paths.get(uploadDir, "products").toAbsolutePath().normalize().resolve(fileName);
-            Resource resource = new UrlResource(filePath.toUri());
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "jpg", "image/jpeg",
+            "jpeg", "image/jpeg",
+            "png", "image/png",
+            "gif", "image/gif",
+            "webp", "image/webp");
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+    private static final String IMMUTABLE_CACHE_CONTROL = "public, max-age=31536000, immutable";
+    private static final String REVALIDATE_CACHE_CONTROL = "public, no-cache";
 
-            if (resource.exists()) {
-                String contentType = determineContentType(fileName);
+    private final ContentAddressedImageStore imageStore;
+    private final ImageStorageMetrics metrics;
+
+    public ProductImageController(ContentAddressedImageStore imageStore, ImageStorageMetrics metrics) {
+        this.imageStore = imageStore;
+        this.metrics = metrics;
+    }
 
-                return ResponseEntity.ok()
-                        .contentType(MediaType.parseMediaType(contentType))
-                        .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + resource.getFilename() + "\"")
-                        .body(resource);
+    @GetMapping("/{fileName:.+}")
+    public void getImage(@PathVariable String fileName,
+                         @RequestParam(value = "size", defaultValue = "original") String size,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        long startNanos = System.nanoTime();
+        ImageVariant variant = ImageVariant.from(size);
+        // Only blob names and legacy <productId>.<ext> names resolve, which also rules out traversal
+        Path filePath = imageStore.locate(fileName);
+        if (filePath == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        String servedName = filePath.getFileName().toString();
+        // A product-id URL can point at new content after the next upload
+        boolean contentAddressed = fileName.equals(servedName);
+
+        BasicFileAttributes attributes = null;
+        boolean variantMissing = false;
+        if (variant.isResized()) {
+            // Variants are produced asynchronously; until one exists the original is served
+            String variantName = ImageVariantProcessor.variantFileName(servedName, variant);
+            Path variantPath = filePath.resolveSibling(ImageVariantProcessor.VARIANTS_DIRECTORY).resolve(variantName);
+            attributes = readAttributes(variantPath);
+            if (attributes != null) {
+                filePath = variantPath;
+                servedName = variantName;
             } else {
-                return ResponseEntity.notFound().build();
+                variantMissing = true;
+            }
+        }
+        if (attributes == null) {
+            attributes = readAttributes(filePath);
+        }
+        if (attributes == null || !attributes.isRegularFile()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        // Served content is named by its hash, so the name doubles as a strong validator
+        String etag = "\"" + servedName.substring(0, servedName.indexOf('.')) + "\"";
+
+        // A fallback original must not be cached in place of the variant that replaces it
+        boolean immutable = contentAddressed && !variantMissing;
+        response.setHeader(HttpHeaders.CACHE_CONTROL,
+                immutable ? IMMUTABLE_CACHE_CONTROL : REVALIDATE_CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        // Writes ETag/Last-Modified and answers 304 (or 412) on its own
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && ifRangeMatches(request, etag, lastModified)) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            // Multiple ranges are legal to ignore; the full body is sent instead
+            if (ranges.size() == 1) {
+                start = ranges.get(0).getRangeStart(length);
+                end = ranges.get(0).getRangeEnd(length);
+                if (start >= length || start > end) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
             }
-        } catch (MalformedURLException ex) {
-            return ResponseEntity.badRequest().build();
+        }
+
+        response.setContentType(contentType(servedName));
+        response.setContentLengthLong(end - start + 1);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + servedName + "\"");
+
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, filePath.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            // The kernel copies the bytes after the handler returns; only the lookup is timed here
+            metrics.recordRead(end - start + 1, startNanos);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = end - start + 1;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, out);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+            metrics.recordRead(position - start, startNanos);
+        }
+    }
+
+    private BasicFileAttributes readAttributes(Path path) throws IOException {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            long since = request.getDateHeader(HttpHeaders.IF_RANGE);
+            return since != -1 && lastModified / 1000 <= since / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
         }
     }
 
-    private String determineContentType(String fileName) {
-        if (fileName.toLowerCase().endsWith(".jpg") || fileName.toLowerCase().endsWith(".jpeg")) {
-            return "image/jpeg";
-        } else if (fileName.toLowerCase().endsWith(".png")) {
-            return "image/png";
-        } else if (fileName.toLowerCase().endsWith(".gif")) {
-            return "image/gif";
-        } else if (fileName.toLowerCase().endsWith(".webp")) {
-            return "image/webp";
-        } else {
-            return "application/octet-stream";
+    private String contentType(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        if (dot < 0) {
+            return DEFAULT_CONTENT_TYPE;
         }
+        return CONTENT_TYPES.getOrDefault(fileName.substring(dot + 1).toLowerCase(Locale.ROOT), DEFAULT_CONTENT_TYPE);
     }
 }
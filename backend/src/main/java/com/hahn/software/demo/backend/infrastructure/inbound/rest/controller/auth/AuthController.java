@@ -4,6 +4,7 @@ import com.hahn.software.demo.backend.application.port.inbound.AuthServicePort;
 import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.request.CustomRequestBody;
 import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.request.LoginRequest;
 import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.request.ReferenceData;
+import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.request.RefreshTokenRequest;
 import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.request.RegisterRequest;
 import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.response.AuthResponse;
 import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.response.ResponseBody;
@@ -62,4 +63,38 @@ public class AuthController {
 
         return ResponseEntity.status(HttpStatus.CREATED).body(responseBody);
     }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<ResponseBody<AuthResponse, ReferenceData>> refreshToken(
+            @Valid @RequestBody CustomRequestBody<RefreshTokenRequest, ReferenceData> requestBody) {
+
+        AuthResponse authResponse = authService.refreshToken(requestBody.getRequestData());
+
+        ResponseBody<AuthResponse, ReferenceData> responseBody =
+                new ResponseBody<>(
+                        "000",
+                        "Token refreshed",
+                        authResponse,
+                        requestBody.getReferenceData()
+                );
+
+        return ResponseEntity.ok(responseBody);
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<ResponseBody<Object, ReferenceData>> logout(
+            @Valid @RequestBody CustomRequestBody<RefreshTokenRequest, ReferenceData> requestBody) {
+
+        authService.logout(requestBody.getRequestData());
+
+        ResponseBody<Object, ReferenceData> responseBody =
+                new ResponseBody<>(
+                        "000",
+                        "Logged out",
+                        null,
+                        requestBody.getReferenceData()
+                );
+
+        return ResponseEntity.ok(responseBody);
+    }
 }
\ No newline at end of file
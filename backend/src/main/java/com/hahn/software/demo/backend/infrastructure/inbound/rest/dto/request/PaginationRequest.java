@@ -5,6 +5,7 @@ public class PaginationRequest {
     private int size = 10;
     private String sortBy = "id";
     private String sortDir = "asc";
+    private String cursor;
 
     public PaginationRequest() {}
 
@@ -46,4 +47,12 @@ public class PaginationRequest {
     public void setSortDir(String sortDir) {
         this.sortDir = sortDir;
     }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
 }
@@ -0,0 +1,24 @@
+package com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchRequest {
+    private String query;
+    private String category;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Boolean inStock;
+    private String sort;
+    private String cursor;
+    @Builder.Default
+    private int size = 20;
+}
@@ -0,0 +1,24 @@
+package com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductUpdateRequest {
+    private UUID id;
+    private String name;
+    private String description;
+    private BigDecimal price;
+    private Integer stockQuantity;
+    private String category;
+    // Version the client last read; null applies the update unconditionally
+    private Long version;
+}
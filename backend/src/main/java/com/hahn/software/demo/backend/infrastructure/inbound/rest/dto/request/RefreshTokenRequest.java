@@ -0,0 +1,14 @@
+package com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RefreshTokenRequest {
+    @NotBlank(message = "140")
+    private String refreshToken;
+}
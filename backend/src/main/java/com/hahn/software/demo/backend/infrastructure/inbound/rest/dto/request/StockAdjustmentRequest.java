@@ -0,0 +1,15 @@
+package com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentRequest {
+    // Negative to reserve or decrement, positive to increment
+    private int delta;
+}
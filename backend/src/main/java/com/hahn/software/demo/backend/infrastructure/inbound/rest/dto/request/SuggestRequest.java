@@ -0,0 +1,16 @@
+package com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestRequest {
+    private String query;
+    @Builder.Default
+    private int limit = 10;
+}
@@ -0,0 +1,20 @@
+package com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResponse {
+    private int index;
+    private UUID id;
+    private boolean success;
+    private String code;
+    private String message;
+}
@@ -10,6 +10,7 @@ public class PagedResponse<T> {
     private int totalPages;
     private boolean first;
     private boolean last;
+    private String nextCursor;
 
     public PagedResponse() {}
 
@@ -78,4 +79,12 @@ public class PagedResponse<T> {
     public void setLast(boolean last) {
         this.last = last;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
@@ -0,0 +1,18 @@
+package com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSuggestionResponse {
+    private UUID id;
+    private String name;
+    private String category;
+}
@@ -0,0 +1,51 @@
+package com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+
+/**
+ * A value serialized once and written verbatim wherever it appears in a
+ * response. The UTF-8 bytes are encoded up front, so writing it is a copy
+ * into the generator's buffer.
+ */
+public final class SerializedJson extends JsonSerializable.Base {
+
+    private final SerializedString json;
+    private final int byteSize;
+
+    private SerializedJson(SerializedString json) {
+        this.json = json;
+        this.byteSize = json.asUnquotedUTF8().length;
+    }
+
+    public static SerializedJson of(ObjectMapper objectMapper, Object value) throws JsonProcessingException {
+        return new SerializedJson(new SerializedString(objectMapper.writeValueAsString(value)));
+    }
+
+    public int byteSize() {
+        return byteSize;
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeRawValue(json);
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+            throws IOException {
+        serialize(gen, serializers);
+    }
+
+    @Override
+    public String toString() {
+        return json.getValue();
+    }
+}
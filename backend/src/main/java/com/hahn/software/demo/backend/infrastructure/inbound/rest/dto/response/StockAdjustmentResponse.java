@@ -0,0 +1,17 @@
+package com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentResponse {
+    private UUID id;
+    private Integer stockQuantity;
+}
@@ -1,17 +1,24 @@
 package com.hahn.software.demo.backend.infrastructure.inbound.rest.exception;
 
 import com.hahn.software.demo.backend.domain.exception.EmailAlreadyExistsException;
+import com.hahn.software.demo.backend.domain.exception.ProductException;
+import com.hahn.software.demo.backend.domain.exception.ProductExceptionEnum;
 import com.hahn.software.demo.backend.domain.exception.UserException;
+import com.hahn.software.demo.backend.domain.exception.UserExceptionEnum;
 import com.hahn.software.demo.backend.domain.exception.UserNotFoundException;
 import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.request.ReferenceData;
 import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.response.ResponseBody;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingRequestHeaderException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -46,6 +53,21 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(responseBody);
     }
 
+    @ExceptionHandler(MissingRequestHeaderException.class)
+    public ResponseEntity<ResponseBody<Map<String, String>, ReferenceData>> handleMissingHeader(
+            MissingRequestHeaderException ex) {
+
+        // GET reads take their reference data from headers; same code as a missing referenceData body
+        ResponseBody<Map<String, String>, ReferenceData> responseBody = new ResponseBody<>(
+                "199",
+                "Validation failed",
+                Map.of(ex.getHeaderName(), "131"),
+                null
+        );
+
+        return ResponseEntity.badRequest().body(responseBody);
+    }
+
     @ExceptionHandler(UserNotFoundException.class)
     public ResponseEntity<ResponseBody<Object, ReferenceData>> handleUserNotFoundException(
             UserNotFoundException ex) {
@@ -85,9 +107,88 @@ public class GlobalExceptionHandler {
                 null
         );
 
+        if (UserExceptionEnum.AUTHENTICATION_BUSY.getCode().equals(ex.getCode())) {
+            // Password hashing is saturated; a retry a moment later usually gets a worker
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(responseBody);
+        }
+        if (UserExceptionEnum.INVALID_REFRESH_TOKEN.getCode().equals(ex.getCode())) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(responseBody);
+        }
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(responseBody);
     }
 
+    @ExceptionHandler(ProductException.class)
+    public ResponseEntity<ResponseBody<Object, ReferenceData>> handleProductException(
+            ProductException ex) {
+
+        ResponseBody<Object, ReferenceData> responseBody = new ResponseBody<>(
+                ex.getCode(), // Use the specific error code from the exception
+                ex.getMessage(),
+                null,
+                null
+        );
+
+        if (ProductExceptionEnum.IMAGE_UPLOAD_BUSY.getCode().equals(ex.getCode())) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(responseBody);
+        }
+        return ResponseEntity.status(productStatus(ex.getCode())).body(responseBody);
+    }
+
+    private HttpStatus productStatus(String code) {
+        if (ProductExceptionEnum.PRODUCT_NOT_FOUND.getCode().equals(code)
+                || ProductExceptionEnum.PRODUCT_IMAGE_NOT_FOUND.getCode().equals(code)) {
+            return HttpStatus.NOT_FOUND;
+        }
+        if (ProductExceptionEnum.PRODUCT_VERSION_CONFLICT.getCode().equals(code)
+                || ProductExceptionEnum.INSUFFICIENT_STOCK.getCode().equals(code)) {
+            return HttpStatus.CONFLICT;
+        }
+        if (ProductExceptionEnum.IMAGE_TOO_LARGE.getCode().equals(code)) {
+            return HttpStatus.PAYLOAD_TOO_LARGE;
+        }
+        if (ProductExceptionEnum.UNSUPPORTED_IMAGE_FORMAT.getCode().equals(code)) {
+            return HttpStatus.UNSUPPORTED_MEDIA_TYPE;
+        }
+        if (ProductExceptionEnum.PRODUCT_IMAGE_UPLOAD_FAILED.getCode().equals(code)) {
+            return HttpStatus.INTERNAL_SERVER_ERROR;
+        }
+        return HttpStatus.BAD_REQUEST;
+    }
+
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<ResponseBody<Object, ReferenceData>> handleMaxUploadSizeExceeded(
+            MaxUploadSizeExceededException ex) {
+
+        // Raised by the container's multipart limits before the controller runs
+        ResponseBody<Object, ReferenceData> responseBody = new ResponseBody<>(
+                ProductExceptionEnum.IMAGE_TOO_LARGE.getCode(),
+                ProductExceptionEnum.IMAGE_TOO_LARGE.getMessage(),
+                null,
+                null
+        );
+
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(responseBody);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ResponseBody<Object, ReferenceData>> handleOptimisticLockingFailure(
+            OptimisticLockingFailureException ex) {
+
+        // Only products carry a version; the client should re-read and retry
+        ResponseBody<Object, ReferenceData> responseBody = new ResponseBody<>(
+                ProductExceptionEnum.PRODUCT_VERSION_CONFLICT.getCode(),
+                ProductExceptionEnum.PRODUCT_VERSION_CONFLICT.getMessage(),
+                null,
+                null
+        );
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(responseBody);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ResponseBody<Object, ReferenceData>> handleGeneralExceptions(
             Exception ex) {
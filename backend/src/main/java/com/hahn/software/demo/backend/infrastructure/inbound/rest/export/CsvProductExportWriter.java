@@ -0,0 +1,90 @@
+package com.hahn.software.demo.backend.infrastructure.inbound.rest.export;
+
+import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.response.ProductResponse;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+public class CsvProductExportWriter implements ProductExportWriter {
+
+    private static final String HEADER =
+            "id,name,description,price,stockQuantity,category,imageUrl,createdAt,updatedAt\n";
+
+    private final Writer writer;
+    private boolean firstRowFlushed;
+
+    public CsvProductExportWriter(OutputStream out) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        this.writer.write(HEADER);
+    }
+
+    @Override
+    public void write(ProductResponse product) {
+        try {
+            writeField(product.getId());
+            writer.write(',');
+            writeField(product.getName());
+            writer.write(',');
+            writeField(product.getDescription());
+            writer.write(',');
+            writeField(product.getPrice());
+            writer.write(',');
+            writeField(product.getStockQuantity());
+            writer.write(',');
+            writeField(product.getCategory());
+            writer.write(',');
+            writeField(product.getImageUrl());
+            writer.write(',');
+            writeField(product.getCreatedAt());
+            writer.write(',');
+            writeField(product.getUpdatedAt());
+            writer.write('\n');
+            if (!firstRowFlushed) {
+                writer.flush();
+                firstRowFlushed = true;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeField(Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        if (!needsQuoting(text)) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    private boolean needsQuoting(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+}
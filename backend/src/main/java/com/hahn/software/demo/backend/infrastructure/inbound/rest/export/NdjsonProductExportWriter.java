@@ -0,0 +1,43 @@
+package com.hahn.software.demo.backend.infrastructure.inbound.rest.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.response.ProductResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+public class NdjsonProductExportWriter implements ProductExportWriter {
+
+    private final JsonGenerator generator;
+    private final ObjectWriter writer;
+    private boolean firstRowFlushed;
+
+    public NdjsonProductExportWriter(OutputStream out, ObjectMapper objectMapper) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(out);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.writer = objectMapper.writerFor(ProductResponse.class);
+    }
+
+    @Override
+    public void write(ProductResponse product) {
+        try {
+            writer.writeValue(generator, product);
+            generator.writeRaw('\n');
+            if (!firstRowFlushed) {
+                // Get the first byte on the wire immediately, then let the container buffer
+                generator.flush();
+                firstRowFlushed = true;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
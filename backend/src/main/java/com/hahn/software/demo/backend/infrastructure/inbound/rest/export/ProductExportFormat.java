@@ -0,0 +1,37 @@
+package com.hahn.software.demo.backend.infrastructure.inbound.rest.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hahn.software.demo.backend.domain.exception.ProductException;
+import com.hahn.software.demo.backend.domain.exception.ProductExceptionEnum;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+@Getter
+@AllArgsConstructor
+public enum ProductExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv;charset=UTF-8", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    public ProductExportWriter open(OutputStream out, ObjectMapper objectMapper) throws IOException {
+        return this == CSV
+                ? new CsvProductExportWriter(out)
+                : new NdjsonProductExportWriter(out, objectMapper);
+    }
+
+    public static ProductExportFormat from(String value) {
+        for (ProductExportFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new ProductException(
+                ProductExceptionEnum.INVALID_PRODUCT_DATA.getCode(),
+                "Unsupported export format: " + value);
+    }
+}
@@ -0,0 +1,13 @@
+package com.hahn.software.demo.backend.infrastructure.inbound.rest.export;
+
+import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.response.ProductResponse;
+
+import java.io.Closeable;
+
+/**
+ * Writes products one at a time to an open response stream. Implementations
+ * must not hold on to rows once written.
+ */
+public interface ProductExportWriter extends Closeable {
+    void write(ProductResponse product);
+}
@@ -0,0 +1,215 @@
+package com.hahn.software.demo.backend.infrastructure.output.persistence.adapter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hahn.software.demo.backend.application.port.outbound.ProductRepositoryPort;
+import com.hahn.software.demo.backend.domain.aggregate.Product;
+import com.hahn.software.demo.backend.domain.model.CatalogRevision;
+import com.hahn.software.demo.backend.domain.model.CursorPage;
+import com.hahn.software.demo.backend.domain.model.ProductCursor;
+import com.hahn.software.demo.backend.domain.model.ProductField;
+import com.hahn.software.demo.backend.domain.model.ProductRevision;
+import com.hahn.software.demo.backend.domain.model.ProductSearchCriteria;
+import com.hahn.software.demo.backend.domain.model.ProductSearchCursor;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.support.TransactionCallbacks;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Read-through cache for by-id product lookups. Size-bounded (W-TinyLFU) with
+ * a write TTL; hit, miss and eviction counts are published as
+ * {@code cache.*{cache="products"}} meters.
+ */
+@Primary
+@Component
+public class CachingProductRepositoryAdapter implements ProductRepositoryPort {
+
+    private final ProductRepositoryAdapter delegate;
+    private final Cache<UUID, Product> cache;
+    private final Duration freshWriteWindow;
+
+    public CachingProductRepositoryAdapter(
+            ProductRepositoryAdapter delegate,
+            MeterRegistry meterRegistry,
+            @Value("${app.cache.products.maximum-size:10000}") long maximumSize,
+            @Value("${app.cache.products.ttl:10m}") Duration ttl,
+            @Value("${app.cache.products.fresh-write-window:5s}") Duration freshWriteWindow) {
+        this.delegate = delegate;
+        this.freshWriteWindow = freshWriteWindow;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "products");
+    }
+
+    @Override
+    public Product save(Product product) {
+        try {
+            Product saved = delegate.save(product);
+            evict(saved.getId());
+            return saved;
+        } catch (OptimisticLockingFailureException e) {
+            // The cached copy may be what carried the stale version; the retry should read the row
+            evict(product.getId());
+            throw e;
+        }
+    }
+
+    @Override
+    public Optional<Product> findById(UUID id) {
+        Product cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached.toBuilder().build());
+        }
+
+        Optional<Product> product = delegate.findById(id);
+        // Callers mutate the aggregate they get back, so the cache keeps its own copy
+        product.filter(this::settled).ifPresent(p -> cache.put(id, p.toBuilder().build()));
+        return product;
+    }
+
+    @Override
+    public List<Product> findAllById(Collection<UUID> ids) {
+        List<Product> found = new ArrayList<>(ids.size());
+        List<UUID> misses = new ArrayList<>();
+        for (UUID id : ids) {
+            Product cached = cache.getIfPresent(id);
+            if (cached != null) {
+                found.add(cached.toBuilder().build());
+            } else {
+                misses.add(id);
+            }
+        }
+        if (!misses.isEmpty()) {
+            for (Product product : delegate.findAllById(misses)) {
+                if (settled(product)) {
+                    cache.put(product.getId(), product.toBuilder().build());
+                }
+                found.add(product);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public void insertAll(List<Product> products) {
+        delegate.insertAll(products);
+    }
+
+    @Override
+    public void updateAll(List<Product> products) {
+        try {
+            delegate.updateAll(products);
+        } finally {
+            // Also on a version conflict, so stale cached copies are not offered again
+            products.forEach(product -> evict(product.getId()));
+        }
+    }
+
+    @Override
+    public void deleteAllById(Collection<UUID> ids) {
+        delegate.deleteAllById(ids);
+        ids.forEach(this::evict);
+    }
+
+    @Override
+    public List<Product> findAll(Set<ProductField> fields) {
+        return delegate.findAll(fields);
+    }
+
+    @Override
+    public CursorPage<Product> findPage(ProductCursor after, int size, Set<ProductField> fields) {
+        return delegate.findPage(after, size, fields);
+    }
+
+    @Override
+    public CursorPage<Product> search(ProductSearchCriteria criteria, ProductSearchCursor after, int size,
+                                      Set<ProductField> fields) {
+        return delegate.search(criteria, after, size, fields);
+    }
+
+    @Override
+    public void forEach(Consumer<Product> action) {
+        delegate.forEach(action);
+    }
+
+    @Override
+    public void deleteById(UUID id) {
+        delegate.deleteById(id);
+        evict(id);
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        return findById(id).isPresent();
+    }
+
+    @Override
+    public Optional<ProductRevision> findRevisionById(UUID id) {
+        // Answered from the copy findById would return, so validators match what is served
+        Product cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(new ProductRevision(id, cached.getUpdatedAt(), cached.getVersion(),
+                    cached.getStockQuantity()));
+        }
+        return delegate.findRevisionById(id);
+    }
+
+    @Override
+    public Optional<Product> findByIdForUpdate(UUID id) {
+        return delegate.findByIdForUpdate(id);
+    }
+
+    @Override
+    public CatalogRevision findCatalogRevision() {
+        return delegate.findCatalogRevision();
+    }
+
+    @Override
+    public Optional<Integer> adjustStock(UUID id, int delta) {
+        Optional<Integer> stock = delegate.adjustStock(id, delta);
+        if (stock.isPresent()) {
+            evict(id);
+        }
+        return stock;
+    }
+
+    /**
+     * Drops products whose rows were changed without going through this
+     * adapter; joins the caller's transaction like any other eviction.
+     */
+    public void evictAll(Collection<UUID> ids) {
+        ids.forEach(this::evict);
+    }
+
+    /**
+     * Reads may come from a lagging replica; a row written moments ago could
+     * be the pre-write version, so it is served but not kept.
+     */
+    private boolean settled(Product product) {
+        return product.getUpdatedAt() == null
+                || product.getUpdatedAt().isBefore(LocalDateTime.now().minus(freshWriteWindow));
+    }
+
+    private void evict(UUID id) {
+        cache.invalidate(id);
+        // A concurrent reader may have re-cached the pre-commit row in the meantime
+        TransactionCallbacks.afterCompletion(() -> cache.invalidate(id));
+    }
+}
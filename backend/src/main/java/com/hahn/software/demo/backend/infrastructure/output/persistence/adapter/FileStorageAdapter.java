@@ -3,105 +3,97 @@ package com.hahn.software.demo.backend.infrastructure.output.persistence.adapter
 import com.hahn.software.demo.backend.application.port.outbound.FileStoragePort;
 import com.hahn.software.demo.backend.domain.exception.ProductException;
 import com.hahn.software.demo.backend.domain.exception.ProductExceptionEnum;
+import com.hahn.software.demo.backend.domain.model.StagedImage;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.image.ContentAddressedImageStore;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.image.ImageOutbox;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.image.ImageRejectedException;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.image.ImageStorageMetrics;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.image.UploadBudget;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.io.InputStream;
 import java.util.UUID;
 
+@Slf4j
 @Component
+@RequiredArgsConstructor
 public class FileStorageAdapter implements FileStoragePort {
 
-    @Value("${app.file-storage.upload-dir}")
-    private String uploadDir;
+    private final ContentAddressedImageStore imageStore;
+    private final ImageStorageMetrics metrics;
+    private final UploadBudget uploadBudget;
+    private final ImageOutbox imageOutbox;
 
     @Value("${app.base-url}")
     private String baseUrl;
 
     @Override
-    public String saveProductImage(UUID productId, MultipartFile file) {
-        try {
-            // Create the upload directory if it doesn't exist
-            Path uploadPath = Paths.get(uploadDir, "products").toAbsolutePath().normalize();
-            Files.createDirectories(uploadPath);
-
-            // Get the file extension
-            String originalFilename = StringUtils.cleanPath(file.getOriginalFilename());
-            String fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-
-            // Create a unique filename based on the product ID
-            String filename = productId + fileExtension;
-
-            // Save the file
-            Path targetLocation = uploadPath.resolve(filename);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-
-            // Return the URL to access the image
-            return ServletUriComponentsBuilder.fromHttpUrl(baseUrl)
-                    .path("/api/products/images/")
-                    .path(filename)
-                    .toUriString();
+    public StagedImage stageProductImage(MultipartFile file) {
+        UUID token = UUID.randomUUID();
+        // The container has spooled the part to disk (file-size-threshold: 0); the budget bounds
+        // how much of it is copied into the store at once, and the store re-checks the size as it reads
+        try (UploadBudget.Lease lease = uploadBudget.acquire(file.getSize());
+             InputStream in = file.getInputStream()) {
+            long start = System.nanoTime();
+            // Identical images are stored once; the URL names the content, not the product.
+            // The extension comes from the sniffed format, never from the client's file name
+            String blobName = imageStore.stage(token, in, lease.buffer(), uploadBudget.maxImageBytes());
+            metrics.recordSave(file.getSize(), start);
+            return new StagedImage(token, imageUrl(blobName));
+        } catch (ImageRejectedException ex) {
+            throw new ProductException(ex.getReason().getCode(), ex.getMessage());
         } catch (IOException ex) {
+            log.error("Could not store uploaded image {}", token, ex);
             throw new ProductException(
                     ProductExceptionEnum.PRODUCT_IMAGE_UPLOAD_FAILED.getCode(),
-                    "Could not store file for product " + productId + ". Error: " + ex.getMessage());
+                    "Could not store uploaded file. Error: " + ex.getMessage());
         }
     }
 
     @Override
-    public void deleteProductImage(UUID productId) {
-        try {
-            Path uploadPath = Paths.get(uploadDir, "products").toAbsolutePath().normalize();
-
-            // Try to delete files with common image extensions
-            String[] extensions = {".jpg", ".jpeg", ".png", ".gif", ".webp"};
+    public void attachProductImage(UUID productId, StagedImage image) {
+        imageOutbox.assign(image.getToken(), productId);
+    }
 
-            for (String ext : extensions) {
-                Path filePath = uploadPath.resolve(productId + ext);
-                Files.deleteIfExists(filePath);
-            }
-        } catch (IOException ex) {
-            // Log error but don't throw exception as this is not critical
-            System.err.println("Could not delete product image for " + productId + ": " + ex.getMessage());
+    @Override
+    public void discardStagedImage(StagedImage image) {
+        try {
+            imageOutbox.resolve(image.getToken());
+        } catch (RuntimeException ex) {
+            // Likely the same outage that failed the transaction; the reconciler settles it later
+            log.warn("Could not settle staged image {}: {}", image.getToken(), ex.getMessage());
         }
     }
 
+    @Override
+    public void deleteProductImage(UUID productId) {
+        imageOutbox.remove(productId);
+    }
+
     @Override
     public String getProductImageUrl(UUID productId) {
+        long start = System.nanoTime();
         try {
-            Path uploadPath = Paths.get(uploadDir, "products").toAbsolutePath().normalize();
-
-            // Try to find file with common image extensions
-            String[] extensions = {".jpg", ".jpeg", ".png", ".gif", ".webp"};
-
-            for (String ext : extensions) {
-                Path filePath = uploadPath.resolve(productId + ext);
-                if (Files.exists(filePath)) {
-                    String filename = productId + ext;
-                    return ServletUriComponentsBuilder.fromHttpUrl(baseUrl)
-                            .path("/api/products/images/")
-                            .path(filename)
-                            .toUriString();
-                }
-            }
-
-            throw new ProductException(
-                    ProductExceptionEnum.PRODUCT_IMAGE_NOT_FOUND.getCode(),
-                    "Image not found for product " + productId);
-        } catch (Exception ex) {
-            if (ex instanceof ProductException) {
-                throw ex;
-            }
-            throw new ProductException(
-                    ProductExceptionEnum.PRODUCT_IMAGE_NOT_FOUND.getCode(),
-                    "Could not retrieve image URL for product " + productId + ": " + ex.getMessage());
+            return imageStore.blobName(productId)
+                    .map(this::imageUrl)
+                    .orElseThrow(() -> new ProductException(
+                            ProductExceptionEnum.PRODUCT_IMAGE_NOT_FOUND.getCode(),
+                            "Image not found for product " + productId));
+        } finally {
+            metrics.recordLookup(start);
         }
     }
+
+    private String imageUrl(String blobName) {
+        return ServletUriComponentsBuilder.fromHttpUrl(baseUrl)
+                .path("/api/products/images/")
+                .path(blobName)
+                .toUriString();
+    }
 }
@@ -2,49 +2,373 @@ package com.hahn.software.demo.backend.infrastructure.output.persistence.adapter
 
 import com.hahn.software.demo.backend.application.port.outbound.ProductRepositoryPort;
 import com.hahn.software.demo.backend.domain.aggregate.Product;
+import com.hahn.software.demo.backend.domain.model.CatalogRevision;
+import com.hahn.software.demo.backend.domain.model.CursorPage;
+import com.hahn.software.demo.backend.domain.model.ProductCursor;
+import com.hahn.software.demo.backend.domain.model.ProductField;
+import com.hahn.software.demo.backend.domain.model.ProductRevision;
+import com.hahn.software.demo.backend.domain.model.ProductSearchCriteria;
+import com.hahn.software.demo.backend.domain.model.ProductSearchCursor;
+import com.hahn.software.demo.backend.domain.model.ProductSort;
 import com.hahn.software.demo.backend.infrastructure.output.persistence.entity.ProductEntity;
 import com.hahn.software.demo.backend.infrastructure.output.persistence.mapper.ProductPersistenceMapper;
 import com.hahn.software.demo.backend.infrastructure.output.persistence.repository.ProductJpaRepository;
-import lombok.RequiredArgsConstructor;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.specification.ProductSpecifications;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.support.RepositoryMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Component
-@RequiredArgsConstructor
 public class ProductRepositoryAdapter implements ProductRepositoryPort {
 
     private final ProductJpaRepository productJpaRepository;
+    private final EntityManager entityManager;
+    private final RepositoryMetrics metrics;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    public ProductRepositoryAdapter(ProductJpaRepository productJpaRepository,
+                                    EntityManager entityManager,
+                                    MeterRegistry meterRegistry) {
+        this.productJpaRepository = productJpaRepository;
+        this.entityManager = entityManager;
+        // forEach is left out: its duration is dominated by the caller's consumer
+        this.metrics = new RepositoryMetrics(meterRegistry, "ProductRepositoryPort",
+                "save", "findById", "findAllById", "insertAll", "updateAll", "deleteAllById",
+                "findAll", "findPage", "search", "deleteById", "existsById", "findRevisionById",
+                "findByIdForUpdate", "findCatalogRevision", "adjustStock");
+    }
 
     @Override
     public Product save(Product product) {
-        ProductEntity entity = ProductPersistenceMapper.toEntity(product);
-        ProductEntity savedEntity = productJpaRepository.save(entity);
-        return ProductPersistenceMapper.toDomain(savedEntity);
+        long start = System.nanoTime();
+        try {
+            ProductEntity entity = ProductPersistenceMapper.toEntity(product);
+            ProductEntity savedEntity = productJpaRepository.save(entity);
+            return ProductPersistenceMapper.toDomain(savedEntity);
+        } finally {
+            metrics.record("save", start);
+        }
     }
 
     @Override
     public Optional<Product> findById(UUID id) {
-        return productJpaRepository.findById(id)
-                .map(ProductPersistenceMapper::toDomain);
+        long start = System.nanoTime();
+        try {
+            return productJpaRepository.findById(id)
+                    .map(ProductPersistenceMapper::toDomain);
+        } finally {
+            metrics.record("findById", start);
+        }
+    }
+
+    @Override
+    public List<Product> findAllById(Collection<UUID> ids) {
+        long start = System.nanoTime();
+        try {
+            return ProductPersistenceMapper.toDomainList(productJpaRepository.findAllById(ids));
+        } finally {
+            metrics.record("findAllById", start);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void insertAll(List<Product> products) {
+        long start = System.nanoTime();
+        try {
+            // persist() rather than save(): save() merges entities with an assigned id, costing a SELECT per row
+            for (int i = 0; i < products.size(); i++) {
+                entityManager.persist(ProductPersistenceMapper.toEntity(products.get(i)));
+                if ((i + 1) % batchSize == 0) {
+                    flushAndClear();
+                }
+            }
+            flushAndClear();
+        } finally {
+            metrics.record("insertAll", start);
+        }
     }
 
     @Override
-    public List<Product> findAll() {
-        List<ProductEntity> entities = productJpaRepository.findAll();
-        return ProductPersistenceMapper.toDomainList(entities);
+    @Transactional
+    public void updateAll(List<Product> products) {
+        long start = System.nanoTime();
+        try {
+            for (int from = 0; from < products.size(); from += batchSize) {
+                List<Product> chunk = products.subList(from, Math.min(from + batchSize, products.size()));
+                // One IN query loads the chunk; dirty checking then emits a single batched UPDATE
+                Map<UUID, ProductEntity> managed = productJpaRepository
+                        .findAllById(chunk.stream().map(Product::getId).toList())
+                        .stream()
+                        .collect(Collectors.toMap(ProductEntity::getId, Function.identity()));
+                for (Product product : chunk) {
+                    ProductEntity entity = managed.get(product.getId());
+                    if (entity == null) {
+                        continue;
+                    }
+                    // Hibernate checks the version it loaded, not one set on a managed entity,
+                    // so the caller's expected version is compared here
+                    if (product.getVersion() != null && !product.getVersion().equals(entity.getVersion())) {
+                        throw new ObjectOptimisticLockingFailureException(ProductEntity.class, product.getId());
+                    }
+                    ProductPersistenceMapper.updateEntity(entity, product);
+                }
+                flushAndClear();
+            }
+        } finally {
+            metrics.record("updateAll", start);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void deleteAllById(Collection<UUID> ids) {
+        long start = System.nanoTime();
+        try {
+            if (!ids.isEmpty()) {
+                productJpaRepository.deleteAllByIdIn(ids);
+            }
+        } finally {
+            metrics.record("deleteAllById", start);
+        }
+    }
+
+    @Override
+    public List<Product> findAll(Set<ProductField> fields) {
+        long start = System.nanoTime();
+        try {
+            if (!isFullRow(fields)) {
+                return selectFields(null, null, fields, Integer.MAX_VALUE);
+            }
+            List<ProductEntity> entities = productJpaRepository.findAll();
+            return ProductPersistenceMapper.toDomainList(entities);
+        } finally {
+            metrics.record("findAll", start);
+        }
+    }
+
+    @Override
+    public CursorPage<Product> findPage(ProductCursor after, int size, Set<ProductField> fields) {
+        long start = System.nanoTime();
+        try {
+            return findPageUntimed(after, size, fields);
+        } finally {
+            metrics.record("findPage", start);
+        }
+    }
+
+    private CursorPage<Product> findPageUntimed(ProductCursor after, int size, Set<ProductField> fields) {
+        // Fetch one extra row to learn whether another page exists without a count query
+        List<Product> rows;
+        if (isFullRow(fields)) {
+            rows = ProductPersistenceMapper.toDomainList(after == null
+                    ? productJpaRepository.findFirstPage(size + 1)
+                    : productJpaRepository.findPageAfter(after.getCreatedAt(), after.getId(), size + 1));
+        } else {
+            // Same (created_at, id) order as the native queries, expressed as an OLDEST keyset
+            Specification<ProductEntity> specification = after == null
+                    ? null
+                    : ProductSpecifications.after(new ProductSearchCursor(ProductSort.OLDEST, after.getCreatedAt(), after.getId()));
+            rows = selectFields(specification, ProductSort.OLDEST, fields, size + 1);
+        }
+
+        boolean hasNext = rows.size() > size;
+        List<Product> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext
+                ? ProductCursor.of(content.get(content.size() - 1)).encode()
+                : null;
+
+        return new CursorPage<>(content, nextCursor, hasNext);
+    }
+
+    @Override
+    public CursorPage<Product> search(ProductSearchCriteria criteria, ProductSearchCursor after, int size,
+                                      Set<ProductField> fields) {
+        long start = System.nanoTime();
+        try {
+            return searchUntimed(criteria, after, size, fields);
+        } finally {
+            metrics.record("search", start);
+        }
+    }
+
+    private CursorPage<Product> searchUntimed(ProductSearchCriteria criteria, ProductSearchCursor after, int size,
+                                              Set<ProductField> fields) {
+        ProductSort sort = criteria.getSort();
+        Specification<ProductEntity> specification = ProductSpecifications.matching(criteria);
+        if (after != null) {
+            specification = specification.and(ProductSpecifications.after(after));
+        }
+
+        // Same keyset scheme as findPage: no OFFSET and no count query, one extra row to detect the next page
+        List<Product> rows = isFullRow(fields)
+                ? ProductPersistenceMapper.toDomainList(productJpaRepository.findBy(specification, query -> query
+                        .sortBy(Sort.by(sort.isAscending() ? Sort.Direction.ASC : Sort.Direction.DESC, sort.getProperty(), "id"))
+                        .limit(size + 1)
+                        .all()))
+                : selectFields(specification, sort, fields, size + 1);
+
+        boolean hasNext = rows.size() > size;
+        List<Product> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext
+                ? ProductSearchCursor.of(sort, content.get(content.size() - 1)).encode()
+                : null;
+
+        return new CursorPage<>(content, nextCursor, hasNext);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEach(Consumer<Product> action) {
+        try (Stream<ProductEntity> entities = productJpaRepository.streamAll()) {
+            entities.forEach(entity -> {
+                action.accept(ProductPersistenceMapper.toDomain(entity));
+                // Keep the persistence context empty so heap stays flat for any catalog size
+                entityManager.detach(entity);
+            });
+        }
+    }
+
+    private static boolean isFullRow(Set<ProductField> fields) {
+        return fields.containsAll(ProductField.ALL);
+    }
+
+    /**
+     * Selects only the columns behind {@code fields}, plus the id and the
+     * sort key the caller needs for its cursor, as a tuple query. Rows come
+     * back as partial products and are never loaded as managed entities.
+     */
+    private List<Product> selectFields(Specification<ProductEntity> specification, ProductSort sort,
+                                       Set<ProductField> fields, int limit) {
+        Set<ProductField> selected = EnumSet.copyOf(fields);
+        selected.add(ProductField.ID);
+        if (sort != null) {
+            selected.add(ProductField.fromProperty(sort.getProperty()));
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<ProductEntity> root = query.from(ProductEntity.class);
+        query.multiselect(selected.stream()
+                .<Selection<?>>map(field -> root.get(field.getProperty()).alias(field.getProperty()))
+                .toList());
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        if (sort != null) {
+            query.orderBy(sort.isAscending()
+                    ? List.of(cb.asc(root.get(sort.getProperty())), cb.asc(root.get("id")))
+                    : List.of(cb.desc(root.get(sort.getProperty())), cb.desc(root.get("id"))));
+        }
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultStream()
+                .map(tuple -> ProductPersistenceMapper.toDomain(tuple, selected))
+                .toList();
+    }
+
+    private void flushAndClear() {
+        // Sends the pending statements as JDBC batches and keeps the persistence context small
+        entityManager.flush();
+        entityManager.clear();
     }
 
     @Override
     public void deleteById(UUID id) {
-        productJpaRepository.deleteById(id);
+        long start = System.nanoTime();
+        try {
+            productJpaRepository.deleteById(id);
+        } finally {
+            metrics.record("deleteById", start);
+        }
     }
 
     @Override
     public boolean existsById(UUID id) {
-        return productJpaRepository.existsById(id);
+        long start = System.nanoTime();
+        try {
+            return productJpaRepository.existsById(id);
+        } finally {
+            metrics.record("existsById", start);
+        }
+    }
+
+    @Override
+    public Optional<ProductRevision> findRevisionById(UUID id) {
+        long start = System.nanoTime();
+        try {
+            return productJpaRepository.findRevisionById(id)
+                    .map(view -> new ProductRevision(id, view.getUpdatedAt(), view.getVersion(),
+                            view.getStockQuantity()));
+        } finally {
+            metrics.record("findRevisionById", start);
+        }
+    }
+
+    @Override
+    public Optional<Product> findByIdForUpdate(UUID id) {
+        long start = System.nanoTime();
+        try {
+            return productJpaRepository.findForUpdateById(id)
+                    .map(ProductPersistenceMapper::toDomain);
+        } finally {
+            metrics.record("findByIdForUpdate", start);
+        }
+    }
+
+    @Override
+    public CatalogRevision findCatalogRevision() {
+        long start = System.nanoTime();
+        try {
+            // The row is created by schema-postgresql.sql; 0 until it exists
+            return CatalogRevision.builder()
+                    .revision(productJpaRepository.findCatalogRevision().orElse(0L))
+                    .build();
+        } finally {
+            metrics.record("findCatalogRevision", start);
+        }
+    }
+
+    @Override
+    @Transactional
+    public Optional<Integer> adjustStock(UUID id, int delta) {
+        long start = System.nanoTime();
+        try {
+            return productJpaRepository.adjustStock(id, delta, LocalDateTime.now());
+        } finally {
+            metrics.record("adjustStock", start);
+        }
     }
 }
 
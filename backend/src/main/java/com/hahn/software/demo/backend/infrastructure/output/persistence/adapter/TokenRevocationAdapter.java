@@ -0,0 +1,179 @@
+package com.hahn.software.demo.backend.infrastructure.output.persistence.adapter;
+
+import com.hahn.software.demo.backend.application.port.outbound.TokenRevocationPort;
+import com.hahn.software.demo.backend.domain.event.UserChangedEvent;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.entity.RevokedTokenEntity;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.repository.ConsumedTokenJpaRepository;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.repository.RevokedTokenJpaRepository;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.support.BloomFilter;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.support.TransactionCallbacks;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Revoked token, session and user ids, held in memory so requests are
+ * checked without a query: a Bloom filter rules out almost every id and
+ * only possible hits consult the exact map. Revocations are written
+ * through to {@code revoked_tokens}, loaded at startup, pulled from other
+ * instances every sync interval and dropped once they expire. Consumed
+ * single-use tokens are only ever looked up when presented again, so they
+ * stay in {@code consumed_tokens} and never take up memory here.
+ */
+@Slf4j
+@Component
+public class TokenRevocationAdapter implements TokenRevocationPort {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    // Re-reads a window before the last sync so rows committed slightly out of clock order are not missed
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final RevokedTokenJpaRepository revokedTokenRepository;
+    private final ConsumedTokenJpaRepository consumedTokenRepository;
+    private final int expectedEntries;
+    private final Duration userRevocationTtl;
+
+    private final Map<String, Revocation> revocations = new ConcurrentHashMap<>();
+    // Serializes additions with filter rebuilds; lookups take no lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile BloomFilter filter;
+    private Instant lastSync;
+
+    public TokenRevocationAdapter(RevokedTokenJpaRepository revokedTokenRepository,
+                                  ConsumedTokenJpaRepository consumedTokenRepository,
+                                  @Value("${app.security.revocation.expected-entries:100000}") int expectedEntries,
+                                  @Value("${jwt.refresh-expiration:1209600000}") long refreshExpirationMs,
+                                  MeterRegistry meterRegistry) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.consumedTokenRepository = consumedTokenRepository;
+        this.expectedEntries = expectedEntries;
+        // Outlives every token the user could hold at the time of revocation
+        this.userRevocationTtl = Duration.ofMillis(refreshExpirationMs);
+        this.filter = new BloomFilter(expectedEntries, FALSE_POSITIVE_RATE);
+        Gauge.builder("auth.revocations", revocations, Map::size)
+                .description("Revoked token, session and user ids held in memory")
+                .register(meterRegistry);
+        Gauge.builder("auth.revocations.filter.bytes", this, adapter -> adapter.filter.sizeInBytes())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void load() {
+        Instant now = Instant.now();
+        revokedTokenRepository.findByExpiresAtAfter(now).forEach(this::remember);
+        lastSync = now;
+        log.info("Loaded {} token revocations", revocations.size());
+    }
+
+    @Override
+    public void revoke(String id, Instant expiresAt) {
+        Instant now = Instant.now();
+        revokedTokenRepository.upsert(id, now, expiresAt);
+        remember(id, new Revocation(now, expiresAt));
+    }
+
+    @Override
+    public boolean consume(String tokenId, Instant expiresAt) {
+        // The primary key decides between concurrent attempts, on this instance or another
+        return consumedTokenRepository.insertIfAbsent(tokenId, Instant.now(), expiresAt) == 1;
+    }
+
+    @Override
+    public boolean isRevoked(String id, Instant issuedAt) {
+        Revocation revocation = find(id);
+        // Token iat has whole seconds; a token from the revocation's own second was issued after it as often as not
+        return revocation != null && issuedAt.getEpochSecond() < revocation.revokedAt().getEpochSecond();
+    }
+
+    @Override
+    public boolean isRevoked(String id) {
+        return find(id) != null;
+    }
+
+    private Revocation find(String id) {
+        if (id == null || !filter.mightContain(id)) {
+            return null;
+        }
+        return revocations.get(id);
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (!event.isActive()) {
+            String userId = event.getUserId().toString();
+            TransactionCallbacks.afterCommit(() -> revoke(userId, Instant.now().plus(userRevocationTtl)));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.revocation.sync-interval:30s}",
+            initialDelayString = "${app.security.revocation.sync-interval:30s}")
+    public void sync() {
+        Instant started = Instant.now();
+        try {
+            revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(lastSync.minus(SYNC_OVERLAP), started)
+                    .forEach(this::remember);
+            lastSync = started;
+        } catch (RuntimeException e) {
+            // Keep enforcing what is already known; the next run retries the same window
+            log.warn("Could not sync token revocations: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.revocation.purge-interval:1h}",
+            initialDelayString = "${app.security.revocation.purge-interval:1h}")
+    public void purge() {
+        Instant now = Instant.now();
+        try {
+            revokedTokenRepository.deleteExpired(now);
+            consumedTokenRepository.deleteExpired(now);
+        } catch (RuntimeException e) {
+            log.warn("Could not delete expired token revocations: {}", e.getMessage());
+        }
+        lock.lock();
+        try {
+            revocations.values().removeIf(revocation -> revocation.expiresAt().isBefore(now));
+            // Bloom filters cannot forget; rebuilding keeps the false-positive rate at its design point
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revocations.size()), FALSE_POSITIVE_RATE);
+            revocations.keySet().forEach(rebuilt::put);
+            filter = rebuilt;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void remember(RevokedTokenEntity entity) {
+        remember(entity.getId(), new Revocation(entity.getRevokedAt(), entity.getExpiresAt()));
+    }
+
+    private void remember(String id, Revocation revocation) {
+        lock.lock();
+        try {
+            // Filter first: a lookup that finds the map entry must also pass the filter
+            filter.put(id);
+            revocations.merge(id, revocation, Revocation::latest);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Revocation(Instant revokedAt, Instant expiresAt) {
+
+        Revocation latest(Revocation other) {
+            return new Revocation(
+                    revokedAt.isAfter(other.revokedAt) ? revokedAt : other.revokedAt,
+                    expiresAt.isAfter(other.expiresAt) ? expiresAt : other.expiresAt);
+        }
+    }
+}
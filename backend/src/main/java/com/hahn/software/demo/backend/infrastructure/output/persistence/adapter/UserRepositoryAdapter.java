@@ -3,11 +3,16 @@ package com.hahn.software.demo.backend.infrastructure.output.persistence.adapter
 
 import com.hahn.software.demo.backend.application.port.outbound.UserRepositoryPort;
 import com.hahn.software.demo.backend.domain.aggregate.User;
+import com.hahn.software.demo.backend.domain.event.UserChangedEvent;
 import com.hahn.software.demo.backend.infrastructure.output.persistence.entity.UserEntity;
 import com.hahn.software.demo.backend.infrastructure.output.persistence.mapper.UserPersistenceMapper;
 import com.hahn.software.demo.backend.infrastructure.output.persistence.repository.UserJpaRepository;
-import lombok.RequiredArgsConstructor;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.support.RepositoryMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -15,43 +20,126 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Component
-@RequiredArgsConstructor
 public class UserRepositoryAdapter implements UserRepositoryPort {
 
     private final UserJpaRepository userJpaRepository;
     private final UserPersistenceMapper userMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final RepositoryMetrics metrics;
+
+    public UserRepositoryAdapter(UserJpaRepository userJpaRepository,
+                                 UserPersistenceMapper userMapper,
+                                 ApplicationEventPublisher eventPublisher,
+                                 EntityManager entityManager,
+                                 MeterRegistry meterRegistry) {
+        this.userJpaRepository = userJpaRepository;
+        this.userMapper = userMapper;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+        this.metrics = new RepositoryMetrics(meterRegistry, "UserRepositoryPort",
+                "save", "insert", "findById", "findByEmail", "findAll", "deleteById",
+                "existsByEmail", "updatePasswordHash");
+    }
 
     @Override
     public User save(User user) {
-        UserEntity entity = userMapper.toEntity(user);
-        UserEntity savedEntity = userJpaRepository.save(entity);
-        return userMapper.toDomain(savedEntity);
+        long start = System.nanoTime();
+        try {
+            UserEntity entity = userMapper.toEntity(user);
+            UserEntity savedEntity = userJpaRepository.save(entity);
+            eventPublisher.publishEvent(
+                    new UserChangedEvent(savedEntity.getId(), savedEntity.getEmail(), savedEntity.isActive()));
+            return userMapper.toDomain(savedEntity);
+        } finally {
+            metrics.record("save", start);
+        }
+    }
+
+    /**
+     * Inserts a user that does not exist yet. Unlike {@link #save} this skips
+     * the SELECT that merging an entity with an assigned id costs; a
+     * duplicate email surfaces as a {@code DataIntegrityViolationException}
+     * from the unique constraint when the transaction commits.
+     */
+    @Override
+    @Transactional
+    public User insert(User user) {
+        long start = System.nanoTime();
+        try {
+            UserEntity entity = userMapper.toEntity(user);
+            entityManager.persist(entity);
+            eventPublisher.publishEvent(new UserChangedEvent(entity.getId(), entity.getEmail(), entity.isActive()));
+            return userMapper.toDomain(entity);
+        } finally {
+            metrics.record("insert", start);
+        }
     }
 
     @Override
     public Optional<User> findById(UUID id) {
-        return userJpaRepository.findById(id).map(userMapper::toDomain);
+        long start = System.nanoTime();
+        try {
+            return userJpaRepository.findById(id).map(userMapper::toDomain);
+        } finally {
+            metrics.record("findById", start);
+        }
     }
 
     @Override
     public Optional<User> findByEmail(String email) {
-        return userJpaRepository.findByEmail(email).map(userMapper::toDomain);
+        long start = System.nanoTime();
+        try {
+            return userJpaRepository.findByEmail(email).map(userMapper::toDomain);
+        } finally {
+            metrics.record("findByEmail", start);
+        }
     }
 
     @Override
     public List<User> findAll() {
-        return userJpaRepository.findAll().stream()
-                .map(userMapper::toDomain)
-                .collect(Collectors.toList());
+        long start = System.nanoTime();
+        try {
+            return userJpaRepository.findAll().stream()
+                    .map(userMapper::toDomain)
+                    .collect(Collectors.toList());
+        } finally {
+            metrics.record("findAll", start);
+        }
     }
 
     @Override
     public void deleteById(UUID id) {
-        userJpaRepository.deleteById(id);
+        long start = System.nanoTime();
+        try {
+            userJpaRepository.findById(id).ifPresent(entity -> {
+                userJpaRepository.delete(entity);
+                eventPublisher.publishEvent(new UserChangedEvent(entity.getId(), entity.getEmail(), false));
+            });
+        } finally {
+            metrics.record("deleteById", start);
+        }
     }
 
     @Override
     public boolean existsByEmail(String email) {
-        return false;
+        long start = System.nanoTime();
+        try {
+            // Probes the unique index on email and stops at the first row
+            return userJpaRepository.existsByEmail(email);
+        } finally {
+            metrics.record("existsByEmail", start);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void updatePasswordHash(String email, String passwordHash) {
+        long start = System.nanoTime();
+        try {
+            userJpaRepository.updatePasswordHash(email, passwordHash);
+        } finally {
+            metrics.record("updatePasswordHash", start);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.hahn.software.demo.backend.infrastructure.output.persistence.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "consumed_tokens", indexes = {
+        @Index(name = "idx_consumed_tokens_expires_at", columnList = "expires_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsumedTokenEntity {
+
+    // Id of a single-use token that was already exchanged
+    @Id
+    @Column(name = "id", length = 36)
+    private String id;
+
+    @Column(name = "consumed_at", nullable = false)
+    private Instant consumedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
@@ -3,7 +3,9 @@ package com.hahn.software.demo.backend.infrastructure.output.persistence.entity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,7 +16,12 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_products_category", columnList = "category"),
+        @Index(name = "idx_products_price_id", columnList = "price, id"),
+        @Index(name = "idx_products_name_id", columnList = "name, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -44,4 +51,8 @@ public class ProductEntity {
 
     @Column(nullable = false)
     private LocalDateTime updatedAt;
+
+    // Bumped by every entity update and by the stock adjustment statement; a stale value fails the write
+    @Version
+    private Long version;
 }
@@ -0,0 +1,46 @@
+package com.hahn.software.demo.backend.infrastructure.output.persistence.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "stock_flush_markers")
+@IdClass(StockFlushEntity.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockFlushEntity {
+
+    // Instance whose journal the segment belongs to; segment ids are only unique per instance
+    @Id
+    @Column(name = "instance_id")
+    private UUID instanceId;
+
+    // Stock journal segment whose deltas were committed
+    @Id
+    @Column(name = "segment")
+    private Long segment;
+
+    @Column(name = "flushed_at", nullable = false)
+    private Instant flushedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID instanceId;
+        private Long segment;
+    }
+}
@@ -0,0 +1,475 @@
+package com.hahn.software.demo.backend.infrastructure.output.persistence.image;
+
+import com.hahn.software.demo.backend.domain.exception.ProductExceptionEnum;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Stores product images once per distinct content, named by their SHA-256
+ * and sharded as {@code blobs/ab/cd/<sha256>.<ext>}. Which blob belongs to
+ * which product is kept in memory and persisted to an append-only manifest
+ * that is replayed and compacted at startup, so lookups never touch the
+ * filesystem. Blobs no product references any more are deleted.
+ * <p>
+ * An upload is first staged under a token, which holds a reference to its
+ * blob until it is assigned to a product or abandoned. Staged tokens are in
+ * the manifest too, so a blob whose product row committed just before a
+ * crash is still there to be assigned after the restart.
+ */
+@Slf4j
+@Component
+public class ContentAddressedImageStore {
+
+    private static final String BLOBS_DIRECTORY = "blobs";
+    private static final String MANIFEST_FILE = "manifest.log";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int MIGRATION_BUFFER_BYTES = 64 * 1024;
+    private static final Pattern BLOB_NAME = Pattern.compile("([0-9a-f]{64})\\.[a-z0-9]{1,10}");
+    private static final Pattern LEGACY_NAME = Pattern.compile(
+            "([0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12})\\.([A-Za-z0-9]{1,10})");
+
+    private final Path root;
+    private final Path blobs;
+    private final Path manifest;
+    private final ImageVariantProcessor variantProcessor;
+
+    private final Map<UUID, String> index = new ConcurrentHashMap<>();
+    // Guarded by lock, together with the manifest channel
+    private final Map<String, Integer> references = new HashMap<>();
+    // Guarded by lock; each entry holds one reference to its blob
+    private final Map<UUID, Staged> staged = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private FileChannel manifestChannel;
+
+    public ContentAddressedImageStore(@Value("${app.file-storage.upload-dir}") String uploadDir,
+                                      ImageVariantProcessor variantProcessor) {
+        this.root = Paths.get(uploadDir, "products").toAbsolutePath().normalize();
+        this.blobs = root.resolve(BLOBS_DIRECTORY);
+        this.manifest = root.resolve(MANIFEST_FILE);
+        this.variantProcessor = variantProcessor;
+    }
+
+    @PostConstruct
+    public void load() throws IOException {
+        Files.createDirectories(blobs);
+        if (Files.exists(manifest)) {
+            try (BufferedReader reader = Files.newBufferedReader(manifest, StandardCharsets.US_ASCII)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    replay(line);
+                }
+            }
+        }
+        // Entries whose blob was removed by hand would otherwise point nowhere
+        index.values().removeIf(blobName -> !Files.exists(resolve(blobName)));
+        staged.values().removeIf(entry -> !Files.exists(resolve(entry.blobName())));
+        index.values().forEach(blobName -> references.merge(blobName, 1, Integer::sum));
+        staged.values().forEach(entry -> references.merge(entry.blobName(), 1, Integer::sum));
+
+        // Sweep before migrating, while no variant jobs are writing into the blob tree
+        removeOrphans();
+        migrateLegacyFiles();
+        writeCompactedManifest();
+        manifestChannel = FileChannel.open(manifest,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        log.info("Image store loaded: {} products, {} staged images, {} distinct blobs",
+                index.size(), staged.size(), references.size());
+    }
+
+    /**
+     * Stores {@code content} under {@code token} and returns its blob name.
+     * The content is copied through {@code buffer} into a temp file next to
+     * the blobs, hashed and format-sniffed on the way, and refused once it
+     * exceeds {@code maxBytes} or declares more pixels than the variant
+     * processor accepts; the extension is that of the sniffed format.
+     * Identical content already on disk is reused. The blob stays referenced
+     * until the token is {@link #assign assigned} or {@link #abandon abandoned}.
+     */
+    public String stage(UUID token, InputStream content, ByteBuffer buffer, long maxBytes) throws IOException {
+        Path temp = Files.createTempFile(blobs, "upload-", TEMP_SUFFIX);
+        try {
+            Written written = writeHashed(content, temp, buffer, maxBytes, true);
+            variantProcessor.checkDimensions(temp);
+            String blobName = written.hash() + "." + written.format().getExtension();
+            Instant stagedAt = Instant.now();
+            lock.lock();
+            try {
+                boolean created = moveIntoPlace(temp, blobName);
+                append("~" + token + " " + blobName + " " + stagedAt.toEpochMilli());
+                references.merge(blobName, 1, Integer::sum);
+                staged.put(token, new Staged(blobName, stagedAt));
+                if (created) {
+                    variantProcessor.submit(resolve(blobName));
+                }
+                return blobName;
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Makes the blob staged under {@code token} the image of
+     * {@code productId}, releasing the one it replaces. Returns false if the
+     * token was already assigned or abandoned.
+     */
+    public boolean assign(UUID token, UUID productId) throws IOException {
+        lock.lock();
+        try {
+            Staged entry = staged.get(token);
+            if (entry == null) {
+                return false;
+            }
+            // One record moves the reference from the token to the product
+            append("=" + token + " " + productId);
+            staged.remove(token);
+            String previous = index.put(productId, entry.blobName());
+            if (previous != null) {
+                release(previous);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops the reference held by {@code token}; the blob is deleted if
+     * nothing else uses it. Does nothing for a settled token.
+     */
+    public void abandon(UUID token) throws IOException {
+        lock.lock();
+        try {
+            Staged entry = staged.get(token);
+            if (entry != null) {
+                append("!" + token);
+                staged.remove(token);
+                release(entry.blobName());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Optional<String> stagedBlobName(UUID token) {
+        lock.lock();
+        try {
+            return Optional.ofNullable(staged.get(token)).map(Staged::blobName);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Tokens staged before {@code cutoff} and still unsettled.
+     */
+    public List<UUID> stagedBefore(Instant cutoff) {
+        lock.lock();
+        try {
+            return staged.entrySet().stream()
+                    .filter(entry -> entry.getValue().stagedAt().isBefore(cutoff))
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int stagedCount() {
+        lock.lock();
+        try {
+            return staged.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void remove(UUID productId) throws IOException {
+        lock.lock();
+        try {
+            String previous = index.remove(productId);
+            if (previous != null) {
+                append("-" + productId);
+                release(previous);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Optional<String> blobName(UUID productId) {
+        return Optional.ofNullable(index.get(productId));
+    }
+
+    /**
+     * Maps a requested file name to the blob on disk. Accepts blob names as
+     * well as the {@code <productId>.<ext>} names handed out before images
+     * were content-addressed; anything else yields {@code null}.
+     */
+    public Path locate(String fileName) {
+        if (BLOB_NAME.matcher(fileName).matches()) {
+            return resolve(fileName);
+        }
+        Matcher legacy = LEGACY_NAME.matcher(fileName);
+        if (legacy.matches()) {
+            String blobName = index.get(UUID.fromString(legacy.group(1)));
+            return blobName == null ? null : resolve(blobName);
+        }
+        return null;
+    }
+
+    private Path resolve(String blobName) {
+        return blobs.resolve(blobName.substring(0, 2)).resolve(blobName.substring(2, 4)).resolve(blobName);
+    }
+
+    private void replay(String line) {
+        try {
+            if (line.startsWith("+")) {
+                int space = line.indexOf(' ');
+                String blobName = line.substring(space + 1);
+                if (BLOB_NAME.matcher(blobName).matches()) {
+                    index.put(UUID.fromString(line.substring(1, space)), blobName);
+                }
+            } else if (line.startsWith("-")) {
+                index.remove(UUID.fromString(line.substring(1)));
+            } else if (line.startsWith("~")) {
+                String[] parts = line.substring(1).split(" ");
+                if (BLOB_NAME.matcher(parts[1]).matches()) {
+                    staged.put(UUID.fromString(parts[0]),
+                            new Staged(parts[1], Instant.ofEpochMilli(Long.parseLong(parts[2]))));
+                }
+            } else if (line.startsWith("=")) {
+                int space = line.indexOf(' ');
+                UUID productId = UUID.fromString(line.substring(space + 1));
+                Staged entry = staged.remove(UUID.fromString(line.substring(1, space)));
+                if (entry != null) {
+                    index.put(productId, entry.blobName());
+                }
+            } else if (line.startsWith("!")) {
+                staged.remove(UUID.fromString(line.substring(1)));
+            }
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            // A torn last line after a crash; the operation it described never completed
+            log.warn("Skipping malformed image manifest entry: {}", line);
+        }
+    }
+
+    /**
+     * Copies {@code content} into {@code temp} through {@code buffer} and
+     * forces it to disk. The format is sniffed from the first chunk, so with
+     * {@code requireImage} anything else is refused before more is written.
+     */
+    private Written writeHashed(InputStream content, Path temp, ByteBuffer buffer, long maxBytes,
+                                boolean requireImage) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] header = new byte[ImageFormat.HEADER_BYTES];
+        ImageFormat format = null;
+        long total = 0;
+        boolean first = true;
+        // A FileInputStream (a part the container spooled to disk) yields its FileChannel: no heap copy at all
+        try (ReadableByteChannel in = Channels.newChannel(content);
+             FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            buffer.clear();
+            boolean eof = false;
+            while (!eof) {
+                int read = in.read(buffer);
+                eof = read < 0;
+                // Fill past the header before looking at the first chunk
+                boolean headerIncomplete = first && buffer.position() < ImageFormat.HEADER_BYTES;
+                if (buffer.position() == 0 || !eof && headerIncomplete && buffer.hasRemaining()) {
+                    continue;
+                }
+                buffer.flip();
+                total += buffer.remaining();
+                if (total > maxBytes) {
+                    throw new ImageRejectedException(ProductExceptionEnum.IMAGE_TOO_LARGE,
+                            "Image exceeds the limit of " + maxBytes + " bytes");
+                }
+                if (first) {
+                    int length = Math.min(header.length, buffer.remaining());
+                    buffer.get(buffer.position(), header, 0, length);
+                    format = ImageFormat.sniff(header, length).orElse(null);
+                    if (format == null && requireImage) {
+                        throw new ImageRejectedException(ProductExceptionEnum.UNSUPPORTED_IMAGE_FORMAT,
+                                "Content is not a JPEG, PNG, GIF or WebP image");
+                    }
+                    first = false;
+                }
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                buffer.clear();
+            }
+            out.force(true);
+        }
+        return new Written(HexFormat.of().formatHex(digest.digest()), format);
+    }
+
+    private boolean moveIntoPlace(Path temp, String blobName) throws IOException {
+        Path target = resolve(blobName);
+        if (Files.exists(target)) {
+            return false;
+        }
+        Files.createDirectories(target.getParent());
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        return true;
+    }
+
+    private void release(String blobName) throws IOException {
+        int remaining = references.merge(blobName, -1, Integer::sum);
+        if (remaining <= 0) {
+            references.remove(blobName);
+            Path blob = resolve(blobName);
+            Files.deleteIfExists(blob);
+            variantProcessor.deleteVariants(blob);
+        }
+    }
+
+    private void append(String entry) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap((entry + "\n").getBytes(StandardCharsets.US_ASCII));
+        while (buffer.hasRemaining()) {
+            manifestChannel.write(buffer);
+        }
+        manifestChannel.force(false);
+    }
+
+    private void writeCompactedManifest() throws IOException {
+        Path temp = Files.createTempFile(root, "manifest-", TEMP_SUFFIX);
+        try {
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.US_ASCII)) {
+                for (Map.Entry<UUID, String> entry : index.entrySet()) {
+                    writer.write("+" + entry.getKey() + " " + entry.getValue() + "\n");
+                }
+                for (Map.Entry<UUID, Staged> entry : staged.entrySet()) {
+                    writer.write("~" + entry.getKey() + " " + entry.getValue().blobName() + " "
+                            + entry.getValue().stagedAt().toEpochMilli() + "\n");
+                }
+            }
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(temp, manifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Moves images stored as {@code <productId>.<ext>} by earlier versions
+     * into the blob store.
+     */
+    private void migrateLegacyFiles() throws IOException {
+        List<Path> legacyFiles;
+        try (Stream<Path> files = Files.list(root)) {
+            legacyFiles = files.filter(path -> LEGACY_NAME.matcher(path.getFileName().toString()).matches())
+                    .filter(Files::isRegularFile)
+                    .toList();
+        }
+        ByteBuffer migrationBuffer = ByteBuffer.allocate(MIGRATION_BUFFER_BYTES);
+        for (Path legacyFile : legacyFiles) {
+            Matcher matcher = LEGACY_NAME.matcher(legacyFile.getFileName().toString());
+            matcher.matches();
+            UUID productId = UUID.fromString(matcher.group(1));
+            if (!index.containsKey(productId)) {
+                Path temp = Files.createTempFile(blobs, "migrate-", TEMP_SUFFIX);
+                try {
+                    String blobName;
+                    try (InputStream in = Files.newInputStream(legacyFile)) {
+                        blobName = writeHashed(in, temp, migrationBuffer, Long.MAX_VALUE, false).hash()
+                                + "." + matcher.group(2).toLowerCase(Locale.ROOT);
+                    }
+                    if (moveIntoPlace(temp, blobName)) {
+                        variantProcessor.submit(resolve(blobName));
+                    }
+                    index.put(productId, blobName);
+                    references.merge(blobName, 1, Integer::sum);
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+            }
+            Files.delete(legacyFile);
+            variantProcessor.deleteVariants(legacyFile);
+        }
+        if (!legacyFiles.isEmpty()) {
+            log.info("Migrated {} product images into the content-addressed store", legacyFiles.size());
+        }
+    }
+
+    private void removeOrphans() throws IOException {
+        List<Path> candidates;
+        try (Stream<Path> files = Files.walk(blobs)) {
+            candidates = files.filter(Files::isRegularFile).toList();
+        }
+        for (Path file : candidates) {
+            String name = file.getFileName().toString();
+            if (name.endsWith(TEMP_SUFFIX)) {
+                Files.deleteIfExists(file);
+            } else if (BLOB_NAME.matcher(name).matches() && !references.containsKey(name)) {
+                Files.deleteIfExists(file);
+                variantProcessor.deleteVariants(file);
+            }
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (manifestChannel != null) {
+                manifestChannel.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Written(String hash, ImageFormat format) {
+    }
+
+    private record Staged(String blobName, Instant stagedAt) {
+    }
+}
@@ -0,0 +1,162 @@
+package com.hahn.software.demo.backend.infrastructure.output.persistence.image;
+
+import com.hahn.software.demo.backend.infrastructure.output.persistence.entity.ImageOutboxEntity;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.entity.ImageOutboxEntity.Operation;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.repository.ImageOutboxJpaRepository;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.repository.ProductJpaRepository;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.support.TransactionCallbacks;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Keeps product rows and the image store in step without doing file I/O in
+ * a transaction. Images are staged on disk first; the transaction that
+ * changes the product only inserts an {@code image_outbox} row, and the
+ * store is updated after the commit, which then deletes the row. Rows left
+ * behind by a crash or a failed callback are completed by
+ * {@link #reconcile()}, which also releases staged images whose transaction
+ * never committed.
+ */
+@Slf4j
+@Component
+public class ImageOutbox {
+
+    private final ImageOutboxJpaRepository outboxRepository;
+    private final ProductJpaRepository productJpaRepository;
+    private final ContentAddressedImageStore imageStore;
+    private final ImageStorageMetrics metrics;
+    // Reads run in short read-write transactions so they go to the primary: a lagging replica
+    // could miss a committed row and release an image that is in use. No file I/O runs inside them.
+    private final TransactionTemplate transactionTemplate;
+    // Leaves rows alone while their own after-commit callback may still be running
+    private final Duration minAge;
+    // Longer than any transaction that could still commit a staged image
+    private final Duration stagedTimeout;
+
+    public ImageOutbox(ImageOutboxJpaRepository outboxRepository,
+                       ProductJpaRepository productJpaRepository,
+                       ContentAddressedImageStore imageStore,
+                       ImageStorageMetrics metrics,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${app.file-storage.outbox.min-age:30s}") Duration minAge,
+                       @Value("${app.file-storage.outbox.staged-timeout:10m}") Duration stagedTimeout,
+                       MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.productJpaRepository = productJpaRepository;
+        this.imageStore = imageStore;
+        this.metrics = metrics;
+        this.transactionTemplate = transactionTemplate;
+        this.minAge = minAge;
+        this.stagedTimeout = stagedTimeout;
+        Gauge.builder("images.staged", imageStore, ContentAddressedImageStore::stagedCount)
+                .description("Uploaded images not yet assigned to a product or released")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Joins the caller's transaction; the image is assigned after it commits.
+     */
+    public void assign(UUID token, UUID productId) {
+        ImageOutboxEntity entry = outboxRepository.save(new ImageOutboxEntity(token, productId, Operation.ASSIGN,
+                Instant.now()));
+        TransactionCallbacks.afterCommit(() -> apply(entry));
+    }
+
+    /**
+     * Joins the caller's transaction; the image is removed after it commits.
+     */
+    public void remove(UUID productId) {
+        ImageOutboxEntity entry = outboxRepository.save(new ImageOutboxEntity(UUID.randomUUID(), productId,
+                Operation.REMOVE, Instant.now()));
+        TransactionCallbacks.afterCommit(() -> apply(entry));
+    }
+
+    /**
+     * Settles a staged image whose transaction failed or never reported
+     * back: the outbox row exists only if it committed after all.
+     */
+    public void resolve(UUID token) {
+        Optional<ImageOutboxEntity> entry = transactionTemplate.execute(status -> outboxRepository.findById(token));
+        if (entry.isPresent()) {
+            complete(entry.get());
+            return;
+        }
+        try {
+            imageStore.abandon(token);
+        } catch (IOException e) {
+            log.warn("Could not release staged image {}: {}", token, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.file-storage.outbox.reconcile-interval:1m}",
+            initialDelayString = "${app.file-storage.outbox.reconcile-interval:1m}")
+    public void reconcile() {
+        Instant now = Instant.now();
+        try {
+            List<ImageOutboxEntity> entries = transactionTemplate.execute(status ->
+                    outboxRepository.findByCreatedAtBeforeOrderByCreatedAt(now.minus(minAge)));
+            for (ImageOutboxEntity entry : entries) {
+                complete(entry);
+            }
+            for (UUID token : imageStore.stagedBefore(now.minus(stagedTimeout))) {
+                resolve(token);
+            }
+        } catch (RuntimeException e) {
+            // Everything left over is picked up again by the next run
+            log.warn("Could not reconcile product images: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Applies a row that was not applied right after its commit. The row may
+     * be older than changes already applied, so an assignment only goes
+     * ahead if the product still points at the staged image.
+     */
+    private void complete(ImageOutboxEntity entry) {
+        if (entry.getOperation() == Operation.ASSIGN) {
+            String blobName = imageStore.stagedBlobName(entry.getId()).orElse(null);
+            boolean current = blobName != null && transactionTemplate.execute(status ->
+                    productJpaRepository.findImageUrlById(entry.getProductId()))
+                    .filter(imageUrl -> imageUrl.endsWith("/" + blobName))
+                    .isPresent();
+            if (blobName != null && !current) {
+                try {
+                    imageStore.abandon(entry.getId());
+                } catch (IOException e) {
+                    log.warn("Could not release staged image {}: {}", entry.getId(), e.getMessage());
+                    return;
+                }
+            }
+        }
+        apply(entry);
+    }
+
+    private void apply(ImageOutboxEntity entry) {
+        long start = System.nanoTime();
+        try {
+            if (entry.getOperation() == Operation.ASSIGN) {
+                imageStore.assign(entry.getId(), entry.getProductId());
+            } else {
+                imageStore.remove(entry.getProductId());
+                metrics.recordDelete(start);
+            }
+            outboxRepository.deleteEntry(entry.getId());
+        } catch (IOException | RuntimeException e) {
+            // The row stays; the reconciler retries it
+            log.warn("Could not apply image outbox entry {} for product {}: {}",
+                    entry.getId(), entry.getProductId(), e.getMessage());
+        }
+    }
+}
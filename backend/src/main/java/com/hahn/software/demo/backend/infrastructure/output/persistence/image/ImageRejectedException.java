@@ -0,0 +1,22 @@
+package com.hahn.software.demo.backend.infrastructure.output.persistence.image;
+
+import com.hahn.software.demo.backend.domain.exception.ProductExceptionEnum;
+import lombok.Getter;
+
+import java.io.IOException;
+
+/**
+ * An upload refused for what it contains or how large it is, as opposed to
+ * a storage failure. {@code reason} is the product error reported to the
+ * client.
+ */
+@Getter
+public class ImageRejectedException extends IOException {
+
+    private final ProductExceptionEnum reason;
+
+    public ImageRejectedException(ProductExceptionEnum reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+}
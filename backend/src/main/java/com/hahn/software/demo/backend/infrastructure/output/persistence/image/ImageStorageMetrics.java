@@ -0,0 +1,68 @@
+package com.hahn.software.demo.backend.infrastructure.output.persistence.image;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters for product image traffic: bytes per upload and per served
+ * response ({@code images.bytes{operation}}) and the latency of each
+ * storage operation ({@code images.operations{operation}}).
+ */
+@Component
+public class ImageStorageMetrics {
+
+    private final DistributionSummary bytesWritten;
+    private final DistributionSummary bytesRead;
+    private final Timer saveTimer;
+    private final Timer deleteTimer;
+    private final Timer lookupTimer;
+    private final Timer readTimer;
+
+    public ImageStorageMetrics(MeterRegistry meterRegistry) {
+        this.bytesWritten = bytes(meterRegistry, "write");
+        this.bytesRead = bytes(meterRegistry, "read");
+        this.saveTimer = timer(meterRegistry, "save");
+        this.deleteTimer = timer(meterRegistry, "delete");
+        this.lookupTimer = timer(meterRegistry, "lookup");
+        this.readTimer = timer(meterRegistry, "read");
+    }
+
+    public void recordSave(long bytes, long startNanos) {
+        bytesWritten.record(bytes);
+        saveTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordDelete(long startNanos) {
+        deleteTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordLookup(long startNanos) {
+        lookupTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRead(long bytes, long startNanos) {
+        bytesRead.record(bytes);
+        readTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static DistributionSummary bytes(MeterRegistry meterRegistry, String operation) {
+        return DistributionSummary.builder("images.bytes")
+                .description("Product image bytes transferred per operation")
+                .baseUnit("bytes")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("images.operations")
+                .description("Latency of product image storage operations")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
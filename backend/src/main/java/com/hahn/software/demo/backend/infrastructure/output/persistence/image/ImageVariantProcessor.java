@@ -0,0 +1,227 @@
+package com.hahn.software.demo.backend.infrastructure.output.persistence.image;
+
+import com.hahn.software.demo.backend.domain.exception.ProductExceptionEnum;
+import com.hahn.software.demo.backend.domain.model.ImageVariant;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates resized variants of uploaded product images off the request
+ * thread. Work is bounded by a fixed worker pool and queue; when the queue
+ * is full the upload still succeeds and the original is served for every
+ * size until the image is uploaded again.
+ */
+@Slf4j
+@Component
+public class ImageVariantProcessor {
+
+    public static final String VARIANTS_DIRECTORY = "variants";
+
+    private final ThreadPoolExecutor executor;
+    // A small file can declare huge dimensions; decoding allocates 4 bytes per pixel up front
+    private final long maxPixels;
+
+    public ImageVariantProcessor(
+            @Value("${app.image-processing.workers:2}") int workers,
+            @Value("${app.image-processing.queue-capacity:100}") int queueCapacity,
+            @Value("${app.image-processing.max-pixels:40000000}") long maxPixels) {
+        this.maxPixels = maxPixels;
+        AtomicInteger threadCount = new AtomicInteger();
+        // Platform threads even in virtual-thread mode: resizing is CPU-bound and the pool size is the throttle
+        this.executor = new ThreadPoolExecutor(
+                workers, workers,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-variants-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Name of the stored file for a variant of {@code fileName}. Resized JPEGs
+     * stay JPEG; everything else is re-encoded as PNG to keep transparency.
+     */
+    public static String variantFileName(String fileName, ImageVariant variant) {
+        if (!variant.isResized()) {
+            return fileName;
+        }
+        int dot = fileName.lastIndexOf('.');
+        String stem = dot < 0 ? fileName : fileName.substring(0, dot);
+        String extension = dot < 0 ? "" : fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return stem + "-" + variant.getSuffix() + "." + outputFormat(extension);
+    }
+
+    /**
+     * Refuses an image whose declared dimensions exceed the pixel limit.
+     * Only the header is read; formats without an ImageIO reader are never
+     * decoded here and pass.
+     */
+    public void checkDimensions(Path image) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(image.toFile())) {
+            ImageReader reader = reader(input);
+            if (reader == null) {
+                return;
+            }
+            try {
+                checkDimensions(reader);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    public void submit(Path original) {
+        try {
+            executor.execute(() -> generateVariants(original));
+        } catch (RejectedExecutionException e) {
+            log.warn("Image variant queue full, serving {} unresized", original.getFileName());
+        }
+    }
+
+    public void deleteVariants(Path original) throws IOException {
+        Path variantsDirectory = original.resolveSibling(VARIANTS_DIRECTORY);
+        for (ImageVariant variant : ImageVariant.values()) {
+            if (variant.isResized()) {
+                Files.deleteIfExists(variantsDirectory.resolve(
+                        variantFileName(original.getFileName().toString(), variant)));
+            }
+        }
+    }
+
+    void generateVariants(Path original) {
+        try {
+            // Decode once; each smaller variant is scaled down from the previous one
+            BufferedImage source = read(original);
+            if (source == null) {
+                log.debug("No ImageIO reader for {}, skipping variants", original.getFileName());
+                return;
+            }
+
+            Path variantsDirectory = original.resolveSibling(VARIANTS_DIRECTORY);
+            Files.createDirectories(variantsDirectory);
+            String fileName = original.getFileName().toString();
+
+            BufferedImage current = source;
+            for (ImageVariant variant : new ImageVariant[]{ImageVariant.MEDIUM, ImageVariant.THUMBNAIL}) {
+                current = resize(current, variant.getMaxDimension());
+                String variantName = variantFileName(fileName, variant);
+                write(current, variantName, variantsDirectory.resolve(variantName));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not generate variants for {}: {}", original.getFileName(), e.getMessage());
+        }
+    }
+
+    /**
+     * Decodes {@code original} after checking its dimensions, skipping rows
+     * and columns the largest variant does not need.
+     */
+    private BufferedImage read(Path original) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+            ImageReader reader = reader(input);
+            if (reader == null) {
+                return null;
+            }
+            try {
+                checkDimensions(reader);
+                int largest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                // Subsampling keeps at least twice the medium size, so the halving in resize still smooths it
+                int step = Math.max(1, largest / (2 * ImageVariant.MEDIUM.getMaxDimension()));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static ImageReader reader(ImageInputStream input) {
+        if (input == null) {
+            return null;
+        }
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+        if (!readers.hasNext()) {
+            return null;
+        }
+        ImageReader reader = readers.next();
+        reader.setInput(input, true, true);
+        return reader;
+    }
+
+    private void checkDimensions(ImageReader reader) throws IOException {
+        long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+        if (pixels > maxPixels) {
+            throw new ImageRejectedException(ProductExceptionEnum.IMAGE_TOO_LARGE,
+                    "Image exceeds the limit of " + maxPixels + " pixels");
+        }
+    }
+
+    private BufferedImage resize(BufferedImage source, int maxDimension) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double scale = Math.min(1.0, (double) maxDimension / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+        int type = source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        // Repeated halving with bilinear filtering: close to bicubic quality at a fraction of the cost
+        BufferedImage current = source;
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, type);
+            Graphics2D graphics = next.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(current, 0, 0, width, height, null);
+            graphics.dispose();
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+
+        return current;
+    }
+
+    private void write(BufferedImage image, String variantName, Path target) throws IOException {
+        String format = variantName.substring(variantName.lastIndexOf('.') + 1);
+        Path temp = Files.createTempFile(target.getParent(), "variant-", ".tmp");
+        try {
+            ImageIO.write(image, format, temp.toFile());
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static String outputFormat(String extension) {
+        return extension.equals("jpg") || extension.equals("jpeg") ? "jpg" : "png";
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,127 @@
+package com.hahn.software.demo.backend.infrastructure.output.persistence.image;
+
+import com.hahn.software.demo.backend.domain.exception.ProductException;
+import com.hahn.software.demo.backend.domain.exception.ProductExceptionEnum;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for image uploads. Each upload is capped at
+ * {@code max-image-size}, all uploads in flight together at
+ * {@code upload-budget} bytes, and copying goes through one of a fixed set
+ * of direct buffers, so memory use does not grow with upload size or count.
+ * An upload that cannot get its share within {@code upload-wait} is refused
+ * with {@link ProductExceptionEnum#IMAGE_UPLOAD_BUSY}, which the API
+ * answers with 429.
+ */
+@Slf4j
+@Component
+public class UploadBudget {
+
+    private static final int KIB = 1024;
+
+    private final long maxImageBytes;
+    private final int budgetKib;
+    private final Duration wait;
+    // Permits are KiB so budgets beyond 2 GiB still fit an int
+    private final Semaphore bytes;
+    private final BlockingQueue<ByteBuffer> buffers;
+    private final Counter busy;
+
+    public UploadBudget(@Value("${app.file-storage.max-image-size:10MB}") DataSize maxImageSize,
+                        @Value("${app.file-storage.upload-budget:64MB}") DataSize uploadBudget,
+                        @Value("${app.file-storage.upload-buffers:16}") int bufferCount,
+                        @Value("${app.file-storage.upload-buffer-size:64KB}") DataSize bufferSize,
+                        @Value("${app.file-storage.upload-wait:2s}") Duration wait,
+                        MeterRegistry meterRegistry) {
+        this.maxImageBytes = maxImageSize.toBytes();
+        this.budgetKib = Math.toIntExact(Math.max(uploadBudget.toKilobytes(), maxImageSize.toKilobytes()));
+        this.wait = wait;
+        this.bytes = new Semaphore(budgetKib, true);
+        this.buffers = new ArrayBlockingQueue<>(bufferCount);
+        for (int i = 0; i < bufferCount; i++) {
+            buffers.add(ByteBuffer.allocateDirect(Math.toIntExact(bufferSize.toBytes())));
+        }
+
+        Gauge.builder("images.upload.budget", bytes, semaphore -> (double) (budgetKib - semaphore.availablePermits()) * KIB)
+                .description("Bytes of image uploads currently admitted")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.busy = Counter.builder("images.upload.rejected")
+                .description("Image uploads refused because the upload budget was exhausted")
+                .register(meterRegistry);
+    }
+
+    public long maxImageBytes() {
+        return maxImageBytes;
+    }
+
+    /**
+     * Reserves {@code size} bytes of the budget and a copy buffer, waiting up
+     * to {@code upload-wait} for both. Close the lease to hand them back.
+     */
+    public Lease acquire(long size) {
+        if (size > maxImageBytes) {
+            throw new ProductException(
+                    ProductExceptionEnum.IMAGE_TOO_LARGE.getCode(),
+                    "Image is " + size + " bytes; the limit is " + maxImageBytes);
+        }
+        int permits = (int) Math.max(1, (size + KIB - 1) / KIB);
+        long deadline = System.nanoTime() + wait.toNanos();
+        try {
+            if (!bytes.tryAcquire(permits, wait.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw rejected();
+            }
+            ByteBuffer buffer = buffers.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            if (buffer == null) {
+                bytes.release(permits);
+                throw rejected();
+            }
+            return new Lease(buffer, permits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the upload budget", e);
+        }
+    }
+
+    private ProductException rejected() {
+        busy.increment();
+        log.warn("Upload budget exhausted, refusing image upload");
+        return new ProductException(
+                ProductExceptionEnum.IMAGE_UPLOAD_BUSY.getCode(),
+                "Too many image uploads in progress, retry shortly");
+    }
+
+    public final class Lease implements AutoCloseable {
+
+        private final ByteBuffer buffer;
+        private final int permits;
+
+        private Lease(ByteBuffer buffer, int permits) {
+            this.buffer = buffer;
+            this.permits = permits;
+        }
+
+        public ByteBuffer buffer() {
+            return buffer;
+        }
+
+        @Override
+        public void close() {
+            buffers.add(buffer.clear());
+            bytes.release(permits);
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package com.hahn.software.demo.backend.infrastructure.output.persistence.mapper;
 
 import com.hahn.software.demo.backend.domain.aggregate.Product;
+import com.hahn.software.demo.backend.domain.model.ProductField;
 import com.hahn.software.demo.backend.infrastructure.output.persistence.entity.ProductEntity;
+import jakarta.persistence.Tuple;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 public class ProductPersistenceMapper {
@@ -19,9 +25,23 @@ public class ProductPersistenceMapper {
                 .imageUrl(product.getImageUrl())
                 .createdAt(product.getCreatedAt())
                 .updatedAt(product.getUpdatedAt())
+                .version(product.getVersion())
                 .build();
     }
 
+    public static void updateEntity(ProductEntity entity, Product product) {
+        entity.setName(product.getName());
+        entity.setDescription(product.getDescription());
+        entity.setPrice(product.getPrice());
+        if (product.getStockQuantity() != null) {
+            // Null when the stock is owned by the write-behind counter
+            entity.setStockQuantity(product.getStockQuantity());
+        }
+        entity.setCategory(product.getCategory());
+        entity.setImageUrl(product.getImageUrl());
+        entity.setUpdatedAt(product.getUpdatedAt());
+    }
+
     public static Product toDomain(ProductEntity entity) {
         return Product.builder()
                 .id(entity.getId())
@@ -33,9 +53,34 @@ public class ProductPersistenceMapper {
                 .imageUrl(entity.getImageUrl())
                 .createdAt(entity.getCreatedAt())
                 .updatedAt(entity.getUpdatedAt())
+                .version(entity.getVersion())
                 .build();
     }
 
+    /**
+     * Builds a partial product from a projection row whose aliases are the
+     * {@link ProductField} properties; fields not selected stay {@code null}.
+     */
+    public static Product toDomain(Tuple tuple, Set<ProductField> fields) {
+        Product.ProductBuilder builder = Product.builder();
+        for (ProductField field : fields) {
+            Object value = tuple.get(field.getProperty());
+            switch (field) {
+                case ID -> builder.id((UUID) value);
+                case NAME -> builder.name((String) value);
+                case DESCRIPTION -> builder.description((String) value);
+                case PRICE -> builder.price((BigDecimal) value);
+                case STOCK_QUANTITY -> builder.stockQuantity((Integer) value);
+                case CATEGORY -> builder.category((String) value);
+                case IMAGE_URL -> builder.imageUrl((String) value);
+                case CREATED_AT -> builder.createdAt((LocalDateTime) value);
+                case UPDATED_AT -> builder.updatedAt((LocalDateTime) value);
+                case VERSION -> builder.version((Long) value);
+            }
+        }
+        return builder.build();
+    }
+
     public static List<Product> toDomainList(List<ProductEntity> entities) {
         return entities.stream()
                 .map(ProductPersistenceMapper::toDomain)
@@ -0,0 +1,33 @@
+package com.hahn.software.demo.backend.infrastructure.output.persistence.repository;
+
+import com.hahn.software.demo.backend.infrastructure.output.persistence.entity.ConsumedTokenEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface ConsumedTokenJpaRepository extends JpaRepository<ConsumedTokenEntity, String> {
+
+    /**
+     * Returns 1 if this call consumed the token, 0 if some instance already
+     * had.
+     */
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "INSERT INTO consumed_tokens (id, consumed_at, expires_at) VALUES (:id, :consumedAt, :expiresAt) "
+            + "ON CONFLICT (id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("id") String id,
+                       @Param("consumedAt") Instant consumedAt,
+                       @Param("expiresAt") Instant expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ConsumedTokenEntity c WHERE c.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
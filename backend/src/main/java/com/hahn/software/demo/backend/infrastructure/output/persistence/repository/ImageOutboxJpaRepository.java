@@ -0,0 +1,29 @@
+package com.hahn.software.demo.backend.infrastructure.output.persistence.repository;
+
+import com.hahn.software.demo.backend.infrastructure.output.persistence.entity.ImageOutboxEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ImageOutboxJpaRepository extends JpaRepository<ImageOutboxEntity, UUID> {
+
+    List<ImageOutboxEntity> findByCreatedAtBeforeOrderByCreatedAt(Instant cutoff);
+
+    /**
+     * Runs in its own transaction so it can be called from after-commit
+     * callbacks.
+     */
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query("DELETE FROM ImageOutboxEntity o WHERE o.id = :id")
+    int deleteEntry(@Param("id") UUID id);
+}
@@ -1,11 +1,104 @@
 package com.hahn.software.demo.backend.infrastructure.output.persistence.repository;
 
 import com.hahn.software.demo.backend.infrastructure.output.persistence.entity.ProductEntity;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductJpaRepository extends JpaRepository<ProductEntity, UUID> {
+public interface ProductJpaRepository extends JpaRepository<ProductEntity, UUID>, JpaSpecificationExecutor<ProductEntity> {
+
+    @Query(value = "SELECT * FROM products ORDER BY created_at, id LIMIT :limit",
+            nativeQuery = true)
+    List<ProductEntity> findFirstPage(@Param("limit") int limit);
+
+    // Row-value comparison so Postgres can seek directly on idx_products_created_at_id
+    @Query(value = "SELECT * FROM products WHERE (created_at, id) > (:createdAt, :id) " +
+            "ORDER BY created_at, id LIMIT :limit",
+            nativeQuery = true)
+    List<ProductEntity> findPageAfter(@Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") UUID id,
+                                      @Param("limit") int limit);
+
+    // Must be consumed inside a transaction so the driver honours the fetch size instead of buffering every row
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM ProductEntity p ORDER BY p.createdAt, p.id")
+    Stream<ProductEntity> streamAll();
+
+    // Check and write in one statement: the row lock lasts only as long as the UPDATE,
+    // nothing is read first, and concurrent adjustments queue on the row instead of losing updates.
+    // No row comes back when the product is missing or the stock would go negative.
+    @Query(value = "UPDATE products SET stock_quantity = stock_quantity + :delta, " +
+            "version = COALESCE(version, 0) + 1, updated_at = :now " +
+            "WHERE id = :id AND stock_quantity + :delta >= 0 " +
+            "RETURNING stock_quantity",
+            nativeQuery = true)
+    Optional<Integer> adjustStock(@Param("id") UUID id,
+                                  @Param("delta") int delta,
+                                  @Param("now") LocalDateTime now);
+
+    // Write-behind flush. The in-memory check covers adjustments made through the counter only;
+    // the guard catches a row lowered some other way since, which the caller then resolves
+    @Query(value = "UPDATE products SET stock_quantity = stock_quantity + :delta, " +
+            "version = COALESCE(version, 0) + 1, updated_at = :now " +
+            "WHERE id = :id AND stock_quantity + :delta >= 0 RETURNING stock_quantity",
+            nativeQuery = true)
+    Optional<Integer> applyStockDelta(@Param("id") UUID id,
+                                      @Param("delta") int delta,
+                                      @Param("now") LocalDateTime now);
+
+    @Query(value = "UPDATE products SET stock_quantity = 0, " +
+            "version = COALESCE(version, 0) + 1, updated_at = :now " +
+            "WHERE id = :id RETURNING stock_quantity",
+            nativeQuery = true)
+    Optional<Integer> clearStock(@Param("id") UUID id,
+                                 @Param("now") LocalDateTime now);
+
+    // SELECT ... FOR UPDATE; only valid inside a transaction
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM ProductEntity p WHERE p.id = :id")
+    Optional<ProductEntity> findForUpdateById(@Param("id") UUID id);
+
+    @Query("SELECT p.stockQuantity FROM ProductEntity p WHERE p.id = :id")
+    Optional<Integer> findStockQuantityById(@Param("id") UUID id);
+
+    @Query("SELECT p.imageUrl FROM ProductEntity p WHERE p.id = :id")
+    Optional<String> findImageUrlById(@Param("id") UUID id);
+
+    @Query("SELECT p.updatedAt AS updatedAt, p.version AS version, p.stockQuantity AS stockQuantity "
+            + "FROM ProductEntity p WHERE p.id = :id")
+    Optional<RevisionView> findRevisionById(@Param("id") UUID id);
+
+    // Single-row counter maintained by a trigger in schema-postgresql.sql
+    @Query(value = "SELECT revision FROM catalog_revision WHERE id = 1", nativeQuery = true)
+    Optional<Long> findCatalogRevision();
+
+    interface RevisionView {
+        LocalDateTime getUpdatedAt();
+        Long getVersion();
+        Integer getStockQuantity();
+    }
+
+    // One statement for the whole set instead of a SELECT and DELETE per id
+    @Modifying
+    @Query("DELETE FROM ProductEntity p WHERE p.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<UUID> ids);
 }
@@ -0,0 +1,40 @@
+package com.hahn.software.demo.backend.infrastructure.output.persistence.repository;
+
+import com.hahn.software.demo.backend.infrastructure.output.persistence.entity.RevokedTokenEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenJpaRepository extends JpaRepository<RevokedTokenEntity, String> {
+
+    List<RevokedTokenEntity> findByExpiresAtAfter(Instant now);
+
+    List<RevokedTokenEntity> findByRevokedAtAfterAndExpiresAtAfter(Instant since, Instant now);
+
+    /**
+     * Records a revocation, moving an existing one forward to the new
+     * revocation time. Runs in its own transaction so it can be called from
+     * after-commit callbacks.
+     */
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "INSERT INTO revoked_tokens (id, revoked_at, expires_at) VALUES (:id, :revokedAt, :expiresAt) "
+            + "ON CONFLICT (id) DO UPDATE SET revoked_at = EXCLUDED.revoked_at, "
+            + "expires_at = GREATEST(revoked_tokens.expires_at, EXCLUDED.expires_at)", nativeQuery = true)
+    void upsert(@Param("id") String id,
+                @Param("revokedAt") Instant revokedAt,
+                @Param("expiresAt") Instant expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RevokedTokenEntity r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,22 @@
+package com.hahn.software.demo.backend.infrastructure.output.persistence.repository;
+
+import com.hahn.software.demo.backend.infrastructure.output.persistence.entity.StockFlushEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface StockFlushJpaRepository extends JpaRepository<StockFlushEntity, StockFlushEntity.Key> {
+
+    @Query("SELECT MAX(f.segment) FROM StockFlushEntity f WHERE f.instanceId = :instanceId")
+    Optional<Long> findLastSegment(@Param("instanceId") UUID instanceId);
+
+    @Modifying
+    @Query("DELETE FROM StockFlushEntity f WHERE f.instanceId = :instanceId AND f.segment < :segment")
+    int deleteBefore(@Param("instanceId") UUID instanceId, @Param("segment") long segment);
+}
@@ -0,0 +1,74 @@
+package com.hahn.software.demo.backend.infrastructure.output.persistence.specification;
+
+import com.hahn.software.demo.backend.domain.model.ProductSearchCriteria;
+import com.hahn.software.demo.backend.domain.model.ProductSearchCursor;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.entity.ProductEntity;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+public class ProductSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    public static Specification<ProductEntity> matching(ProductSearchCriteria criteria) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (StringUtils.hasText(criteria.getCategory())) {
+                predicates.add(cb.equal(root.get("category"), criteria.getCategory().trim()));
+            }
+            if (criteria.getMinPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), criteria.getMinPrice()));
+            }
+            if (criteria.getMaxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), criteria.getMaxPrice()));
+            }
+            if (criteria.getInStock() != null) {
+                predicates.add(criteria.getInStock()
+                        ? cb.greaterThan(root.get("stockQuantity"), 0)
+                        : cb.lessThanOrEqualTo(root.get("stockQuantity"), 0));
+            }
+            if (StringUtils.hasText(criteria.getText())) {
+                // lower(column) LIKE '%term%' is what the pg_trgm GIN indexes in schema-postgresql.sql serve
+                String pattern = "%" + escapeLike(criteria.getText().trim().toLowerCase(Locale.ROOT)) + "%";
+                predicates.add(cb.or(
+                        cb.like(cb.lower(root.get("name")), pattern, LIKE_ESCAPE),
+                        cb.like(cb.lower(root.get("description")), pattern, LIKE_ESCAPE)));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Rows strictly after {@code cursor} in {@code (sort key, id)} order,
+     * expanded to {@code key > k OR (key = k AND id > i)} for the planner.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<ProductEntity> after(ProductSearchCursor cursor) {
+        return (root, query, cb) -> {
+            Path<Comparable> key = root.get(cursor.getSort().getProperty());
+            Comparable value = cursor.getKey();
+            Path<UUID> id = root.get("id");
+            if (cursor.getSort().isAscending()) {
+                return cb.or(
+                        cb.greaterThan(key, value),
+                        cb.and(cb.equal(key, value), cb.greaterThan(id, cursor.getId())));
+            }
+            return cb.or(
+                    cb.lessThan(key, value),
+                    cb.and(cb.equal(key, value), cb.lessThan(id, cursor.getId())));
+        };
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
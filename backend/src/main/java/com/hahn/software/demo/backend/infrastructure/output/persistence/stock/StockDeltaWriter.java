@@ -0,0 +1,104 @@
+package com.hahn.software.demo.backend.infrastructure.output.persistence.stock;
+
+import com.hahn.software.demo.backend.infrastructure.output.persistence.adapter.CachingProductRepositoryAdapter;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.entity.StockFlushEntity;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.repository.ProductJpaRepository;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.repository.StockFlushJpaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Commits the deltas of one journal segment, exactly once: the instance and
+ * segment id are recorded in the same transaction, so a segment replayed
+ * after a crash between commit and file deletion is skipped.
+ */
+@Slf4j
+@Component
+public class StockDeltaWriter {
+
+    private final ProductJpaRepository productJpaRepository;
+    private final StockFlushJpaRepository stockFlushJpaRepository;
+    private final CachingProductRepositoryAdapter productCache;
+    private final Counter oversold;
+
+    public StockDeltaWriter(ProductJpaRepository productJpaRepository,
+                            StockFlushJpaRepository stockFlushJpaRepository,
+                            CachingProductRepositoryAdapter productCache,
+                            MeterRegistry meterRegistry) {
+        this.productJpaRepository = productJpaRepository;
+        this.stockFlushJpaRepository = stockFlushJpaRepository;
+        this.productCache = productCache;
+        this.oversold = Counter.builder("stock.writebehind.oversold")
+                .description("Units acknowledged in memory that the stored stock could no longer cover")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the stock now stored for each product updated; products that
+     * no longer exist are left out.
+     */
+    @Transactional
+    public Map<UUID, Integer> apply(UUID instanceId, long segment, Map<UUID, Long> deltas) {
+        if (stockFlushJpaRepository.existsById(new StockFlushEntity.Key(instanceId, segment))) {
+            return Map.of();
+        }
+
+        Map<UUID, Integer> stock = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        // Ordered by id so concurrent flushes from several instances lock rows in the same order
+        new TreeMap<>(deltas).forEach((productId, delta) -> {
+            if (delta != 0) {
+                apply(productId, Math.toIntExact(delta), now)
+                        .ifPresent(quantity -> stock.put(productId, quantity));
+            }
+        });
+        // The flush bumps version and updated_at; cached copies would carry the old version into updates
+        productCache.evictAll(stock.keySet());
+        stockFlushJpaRepository.save(new StockFlushEntity(instanceId, segment, Instant.now()));
+        // Older segments' files are gone once a later segment is being flushed; other instances' are not ours to judge
+        stockFlushJpaRepository.deleteBefore(instanceId, segment);
+        return stock;
+    }
+
+    private Optional<Integer> apply(UUID productId, int delta, LocalDateTime now) {
+        Optional<Integer> quantity = productJpaRepository.applyStockDelta(productId, delta, now);
+        if (quantity.isPresent()) {
+            return quantity;
+        }
+        // Either the product is gone or its row was lowered outside the counter after these
+        // adjustments were acknowledged; they cannot be taken back, so the stock stops at zero
+        return productJpaRepository.findStockQuantityById(productId).flatMap(current -> {
+            long shortfall = -((long) current + delta);
+            log.warn("Stock of product {} cannot cover a flushed delta of {}: {} units oversold",
+                    productId, delta, shortfall);
+            oversold.increment(shortfall);
+            return productJpaRepository.clearStock(productId, now);
+        });
+    }
+
+    /**
+     * Reads the stored stock from the primary: a read-only or
+     * non-transactional read may go to a replica that lags behind the last
+     * flush.
+     */
+    @Transactional
+    public Optional<Integer> loadStock(UUID productId) {
+        return productJpaRepository.findStockQuantityById(productId);
+    }
+
+    @Transactional
+    public long lastSegment(UUID instanceId) {
+        return stockFlushJpaRepository.findLastSegment(instanceId).orElse(0L);
+    }
+}
@@ -0,0 +1,219 @@
+package com.hahn.software.demo.backend.infrastructure.output.persistence.stock;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead log of stock deltas, split into segments named
+ * {@code stock-<segment>.journal}. A segment is rotated out at each flush and
+ * deleted once its deltas are committed. Records are a fixed 24 bytes:
+ * product id, delta and a CRC32 that rejects a torn tail after a crash.
+ * Concurrent appends share one {@code force()} (group commit).
+ */
+final class StockJournal implements Closeable {
+
+    private static final int RECORD_BYTES = 24;
+    private static final String INSTANCE_ID_FILE = "instance.id";
+    private static final Pattern SEGMENT_NAME = Pattern.compile("stock-(\\d+)\\.journal");
+
+    private final Path directory;
+    // One thread writes and forces at a time; appenders wait here for their record
+    private final ReentrantLock syncLock = new ReentrantLock();
+    // Guards buffer, appended, channel and segment
+    private final Object appendLock = new Object();
+    private ByteBuffer buffer = ByteBuffer.allocate(RECORD_BYTES * 1024);
+    // Only touched while holding syncLock
+    private ByteBuffer spare = ByteBuffer.allocate(RECORD_BYTES * 1024);
+    private long appended;
+    private volatile long durable;
+    private volatile IOException failure;
+    private FileChannel channel;
+    private long segment;
+
+    private StockJournal(Path directory, long segment) throws IOException {
+        this.directory = directory;
+        this.segment = segment;
+        this.channel = openSegment(segment);
+    }
+
+    static StockJournal open(Path directory, long firstSegment) throws IOException {
+        return new StockJournal(directory, Math.max(firstSegment, System.currentTimeMillis()));
+    }
+
+    /**
+     * Appends one delta and returns once it is on disk. After a failed write
+     * the journal refuses further appends: records that shared the failed
+     * batch must not be reported durable by a later one.
+     */
+    void append(UUID productId, int delta) throws IOException {
+        long ticket;
+        synchronized (appendLock) {
+            if (buffer.remaining() < RECORD_BYTES) {
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2).put(buffer.flip());
+            }
+            int position = buffer.position();
+            buffer.putLong(productId.getMostSignificantBits())
+                    .putLong(productId.getLeastSignificantBits())
+                    .putInt(delta);
+            CRC32 crc = new CRC32();
+            crc.update(buffer.array(), position, RECORD_BYTES - 4);
+            buffer.putInt((int) crc.getValue());
+            ticket = ++appended;
+        }
+        awaitDurable(ticket);
+    }
+
+    /**
+     * Starts a new segment and returns the id of the one it replaces. The
+     * caller must make sure no append is in flight.
+     */
+    long rotate() throws IOException {
+        syncLock.lock();
+        try {
+            synchronized (appendLock) {
+                long previous = segment;
+                long next = Math.max(previous + 1, System.currentTimeMillis());
+                FileChannel opened = openSegment(next);
+                channel.close();
+                channel = opened;
+                segment = next;
+                return previous;
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        syncLock.lock();
+        try {
+            synchronized (appendLock) {
+                channel.close();
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Segment ids found in {@code directory}, oldest first.
+     */
+    static List<Long> segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> SEGMENT_NAME.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Sums the deltas of one segment per product, stopping at the first
+     * incomplete or corrupt record.
+     */
+    static Map<UUID, Long> read(Path directory, long segment) throws IOException {
+        ByteBuffer records = ByteBuffer.wrap(Files.readAllBytes(segmentPath(directory, segment)));
+        Map<UUID, Long> deltas = new HashMap<>();
+        CRC32 crc = new CRC32();
+        while (records.remaining() >= RECORD_BYTES) {
+            int position = records.position();
+            UUID productId = new UUID(records.getLong(), records.getLong());
+            int delta = records.getInt();
+            crc.reset();
+            crc.update(records.array(), position, RECORD_BYTES - 4);
+            if (records.getInt() != (int) crc.getValue()) {
+                break;
+            }
+            deltas.merge(productId, (long) delta, Long::sum);
+        }
+        return deltas;
+    }
+
+    /**
+     * The id recorded in {@code directory}, created on first use. It stays
+     * with the journal, so segments replayed after a restart are matched
+     * against the flush markers written before it.
+     */
+    static UUID instanceId(Path directory) throws IOException {
+        Path file = directory.resolve(INSTANCE_ID_FILE);
+        if (Files.exists(file)) {
+            return UUID.fromString(Files.readString(file).trim());
+        }
+        Path temporary = directory.resolve(INSTANCE_ID_FILE + ".tmp");
+        Files.writeString(temporary, UUID.randomUUID().toString());
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+        return UUID.fromString(Files.readString(file).trim());
+    }
+
+    static void delete(Path directory, long segment) throws IOException {
+        Files.deleteIfExists(segmentPath(directory, segment));
+    }
+
+    private void awaitDurable(long ticket) throws IOException {
+        syncLock.lock();
+        try {
+            if (failure != null) {
+                throw failure;
+            }
+            if (durable >= ticket) {
+                // An earlier leader's force() covered this record
+                return;
+            }
+            ByteBuffer batch;
+            long upTo;
+            FileChannel target;
+            synchronized (appendLock) {
+                batch = buffer.flip();
+                buffer = spare;
+                upTo = appended;
+                target = channel;
+            }
+            try {
+                while (batch.hasRemaining()) {
+                    target.write(batch);
+                }
+                target.force(false);
+            } catch (IOException e) {
+                failure = e;
+                throw e;
+            }
+            spare = batch.clear();
+            durable = upTo;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private FileChannel openSegment(long id) throws IOException {
+        FileChannel opened = FileChannel.open(segmentPath(directory, id),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        // Forcing the file is not enough for a new name to survive a crash; the directory entry must be too
+        try (FileChannel directoryChannel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            directoryChannel.force(true);
+        } catch (IOException e) {
+            // Some platforms cannot open or force a directory
+        }
+        return opened;
+    }
+
+    private static Path segmentPath(Path directory, long segment) {
+        return directory.resolve("stock-" + segment + ".journal");
+    }
+}
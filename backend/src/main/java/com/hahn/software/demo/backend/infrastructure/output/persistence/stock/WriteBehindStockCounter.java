@@ -0,0 +1,317 @@
+package com.hahn.software.demo.backend.infrastructure.output.persistence.stock;
+
+import com.hahn.software.demo.backend.application.port.outbound.StockCounterPort;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind stock for the products listed in
+ * {@code app.inventory.write-behind.products}. Each hot product keeps its
+ * available stock in memory: an adjustment is checked against it with a CAS,
+ * journaled and acknowledged, and the accumulated delta is written with one
+ * UPDATE per product every flush interval. After a flush the in-memory stock
+ * is re-based on what the database returned, so changes made elsewhere are
+ * picked up within one interval. The check is per instance: a hot product
+ * should be adjusted through one instance, or the database may briefly go
+ * below zero by what other instances sold in the same interval.
+ */
+@Slf4j
+@Component
+public class WriteBehindStockCounter implements StockCounterPort {
+
+    private final Set<UUID> hotProducts;
+    private final Path journalDirectory;
+    private final StockDeltaWriter writer;
+    private final Timer flushTimer;
+
+    private final Map<UUID, Counter> counters = new ConcurrentHashMap<>();
+    // Adjustments hold the read lock across journal append and counter update;
+    // a flush takes the write lock so every delta lands in the same segment as its journal record
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Rotated segments whose deltas are not committed yet, oldest first; only the flushing thread changes it
+    private final ConcurrentLinkedDeque<PendingSegment> unflushed = new ConcurrentLinkedDeque<>();
+    private final LongAdder adjustments = new LongAdder();
+    // Identifies this journal directory's segments among those of other instances
+    private UUID instanceId;
+    private volatile StockJournal journal;
+
+    public WriteBehindStockCounter(@Value("${app.inventory.write-behind.products:}") String products,
+                                   @Value("${app.inventory.write-behind.journal-dir:stock-journal}") String journalDir,
+                                   StockDeltaWriter writer,
+                                   MeterRegistry meterRegistry) {
+        this.hotProducts = StringUtils.commaDelimitedListToSet(products).stream()
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .map(UUID::fromString)
+                .collect(Collectors.toUnmodifiableSet());
+        this.journalDirectory = Paths.get(journalDir).toAbsolutePath().normalize();
+        this.writer = writer;
+        this.flushTimer = Timer.builder("stock.writebehind.flush")
+                .description("Time to commit the accumulated stock deltas of hot products")
+                .register(meterRegistry);
+        Gauge.builder("stock.writebehind.unflushed", unflushed, ConcurrentLinkedDeque::size)
+                .description("Journal segments waiting to be committed")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (hotProducts.isEmpty()) {
+            return;
+        }
+        Files.createDirectories(journalDirectory);
+        instanceId = StockJournal.instanceId(journalDirectory);
+        // Deltas acknowledged before a crash must reach the database before new ones are accepted
+        List<Long> segments = StockJournal.segments(journalDirectory);
+        for (long segment : segments) {
+            writer.apply(instanceId, segment, StockJournal.read(journalDirectory, segment));
+            StockJournal.delete(journalDirectory, segment);
+        }
+        long last = Math.max(writer.lastSegment(instanceId), segments.isEmpty() ? 0 : segments.get(segments.size() - 1));
+        journal = StockJournal.open(journalDirectory, last + 1);
+        log.info("Write-behind stock enabled for {} products, replayed {} journal segments",
+                hotProducts.size(), segments.size());
+    }
+
+    @Override
+    public boolean isHot(UUID productId) {
+        return journal != null && hotProducts.contains(productId);
+    }
+
+    @Override
+    public Optional<Integer> adjust(UUID productId, int delta) {
+        return change(productId, counter -> {
+            long stock = counter.reserve(delta);
+            return stock < 0 ? null : new Change(delta, stock);
+        });
+    }
+
+    @Override
+    public Optional<Integer> set(UUID productId, int stock) {
+        return change(productId, counter -> new Change(stock - counter.available.getAndSet(stock), stock));
+    }
+
+    /**
+     * Applies {@code update} to the product's counter and journals the
+     * resulting delta; {@code update} returns null to refuse.
+     */
+    private Optional<Integer> change(UUID productId, Function<Counter, Change> update) {
+        while (true) {
+            Counter counter = counter(productId);
+            if (counter == null) {
+                return Optional.empty();
+            }
+
+            lock.readLock().lock();
+            try {
+                if (counters.get(productId) != counter) {
+                    // Dropped by a flush after we looked it up; its deltas would never be written
+                    continue;
+                }
+                Change change = update.apply(counter);
+                if (change == null) {
+                    return Optional.empty();
+                }
+                if (change.delta() != 0) {
+                    try {
+                        journal.append(productId, Math.toIntExact(change.delta()));
+                    } catch (IOException e) {
+                        counter.available.addAndGet(-change.delta());
+                        throw new UncheckedIOException("Could not journal stock adjustment", e);
+                    }
+                    counter.pending.add(change.delta());
+                }
+                adjustments.increment();
+                return Optional.of((int) change.stock());
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    @Override
+    public Optional<Integer> currentStock(UUID productId) {
+        if (counters.isEmpty()) {
+            return Optional.empty();
+        }
+        Counter counter = counters.get(productId);
+        return counter == null ? Optional.empty() : Optional.of((int) counter.available.get());
+    }
+
+    @Override
+    public long adjustmentCount() {
+        return adjustments.sum();
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.write-behind.flush-interval:500ms}")
+    public synchronized void flush() {
+        if (journal == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            rotate();
+        } catch (IOException e) {
+            // Nothing was reset; the deltas stay pending for the next run
+            log.error("Could not rotate stock journal: {}", e.getMessage());
+            return;
+        }
+
+        Map<UUID, Integer> committed = new HashMap<>();
+        Set<UUID> flushedIds = new HashSet<>();
+        while (!unflushed.isEmpty()) {
+            PendingSegment next = unflushed.peekFirst();
+            try {
+                committed.putAll(writer.apply(instanceId, next.segment(), next.deltas()));
+            } catch (RuntimeException e) {
+                // The segment stays first in line; later ones wait so deltas are applied in order
+                log.warn("Could not flush stock journal segment {}: {}", next.segment(), e.getMessage());
+                break;
+            }
+            unflushed.pollFirst();
+            flushedIds.addAll(next.deltas().keySet());
+            try {
+                StockJournal.delete(journalDirectory, next.segment());
+            } catch (IOException e) {
+                // Replaying it later is harmless: its segment id is recorded as committed
+                log.warn("Could not delete stock journal segment {}: {}", next.segment(), e.getMessage());
+            }
+        }
+
+        if (unflushed.isEmpty() && !flushedIds.isEmpty()) {
+            rebase(flushedIds, committed);
+        }
+        flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (journal != null) {
+            flush();
+            journal.close();
+        }
+    }
+
+    private void rotate() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (counters.values().stream().allMatch(counter -> counter.pending.sum() == 0)) {
+                return;
+            }
+            long segment = journal.rotate();
+            Map<UUID, Long> deltas = new HashMap<>();
+            counters.forEach((productId, counter) -> {
+                long delta = counter.pending.sumThenReset();
+                if (delta != 0) {
+                    deltas.put(productId, delta);
+                }
+            });
+            unflushed.addLast(new PendingSegment(segment, deltas));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void rebase(Set<UUID> flushedIds, Map<UUID, Integer> committed) {
+        lock.writeLock().lock();
+        try {
+            for (UUID productId : flushedIds) {
+                Counter counter = counters.get(productId);
+                Integer stored = committed.get(productId);
+                if (counter == null) {
+                    continue;
+                }
+                if (stored != null) {
+                    counter.available.set(stored + counter.pending.sum());
+                } else if (counter.pending.sum() == 0) {
+                    // No row was updated, so the product is gone; a later adjustment reloads or fails
+                    counters.remove(productId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Loads a missing counter outside the map, so the query does not hold a
+     * bin lock (or pin a virtual thread); of two concurrent loads the first
+     * one stored wins.
+     */
+    private Counter counter(UUID productId) {
+        Counter counter = counters.get(productId);
+        if (counter != null) {
+            return counter;
+        }
+        Optional<Integer> stock = writer.loadStock(productId);
+        if (stock.isEmpty()) {
+            return null;
+        }
+        Counter loaded = new Counter(stock.get());
+        Counter existing = counters.putIfAbsent(productId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private static final class Counter {
+        // Database stock plus every acknowledged delta; decrements are checked against it
+        final AtomicLong available;
+        // Acknowledged deltas not yet handed to a flush
+        final LongAdder pending = new LongAdder();
+
+        Counter(long stock) {
+            this.available = new AtomicLong(stock);
+        }
+
+        /**
+         * Applies {@code delta} unless the stock would go negative; returns the
+         * new stock, or -1 when refused.
+         */
+        long reserve(int delta) {
+            long current;
+            long next;
+            do {
+                current = available.get();
+                next = current + delta;
+                if (next < 0) {
+                    return -1;
+                }
+            } while (!available.compareAndSet(current, next));
+            return next;
+        }
+    }
+
+    private record PendingSegment(long segment, Map<UUID, Long> deltas) {
+    }
+
+    private record Change(long delta, long stock) {
+    }
+}
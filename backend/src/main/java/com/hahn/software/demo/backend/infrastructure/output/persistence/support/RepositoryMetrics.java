@@ -0,0 +1,45 @@
+package com.hahn.software.demo.backend.infrastructure.output.persistence.support;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency timers for the methods of one persistence port, published as
+ * {@code repository.calls{port,method}}. All timers are registered up front,
+ * so recording a call is a map lookup and a histogram update:
+ * <pre>
+ * long start = System.nanoTime();
+ * try {
+ *     ...
+ * } finally {
+ *     metrics.record("findById", start);
+ * }
+ * </pre>
+ */
+public final class RepositoryMetrics {
+
+    private final Map<String, Timer> timers = new HashMap<>();
+
+    public RepositoryMetrics(MeterRegistry meterRegistry, String port, String... methods) {
+        for (String method : methods) {
+            timers.put(method, Timer.builder("repository.calls")
+                    .description("Latency of persistence port calls")
+                    .tag("port", port)
+                    .tag("method", method)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    public void record(String method, long startNanos) {
+        Timer timer = timers.get(method);
+        if (timer == null) {
+            throw new IllegalArgumentException("No timer registered for " + method);
+        }
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,306 @@
+package com.hahn.software.demo.backend.infrastructure.output.search;
+
+import com.hahn.software.demo.backend.application.port.outbound.ProductRepositoryPort;
+import com.hahn.software.demo.backend.application.port.outbound.ProductSuggestIndexPort;
+import com.hahn.software.demo.backend.domain.aggregate.Product;
+import com.hahn.software.demo.backend.domain.model.ProductSuggestion;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.support.TransactionCallbacks;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+import java.util.regex.Pattern;
+
+/**
+ * Prefix index over product name and category tokens. Products get a dense
+ * ordinal; every token maps to a growable {@code int[]} of ordinals in a
+ * sorted term map, so a lookup is one range scan that stops as soon as
+ * {@code limit} live products are found. Removed products are tombstoned and
+ * the index is compacted once half of its ordinals are dead.
+ */
+@Slf4j
+@Component
+public class InMemoryProductSuggestIndex implements ProductSuggestIndexPort {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    // Caps the work for one- and two-letter prefixes on large catalogs
+    private static final int MAX_SCANNED_POSTINGS = 20_000;
+
+    private final ProductRepositoryPort productRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Guarded by lock
+    private Index index = new Index();
+    // Non-null while a rebuild runs; writes made meanwhile are replayed onto the new index
+    private List<Consumer<Index>> pending;
+
+    public InMemoryProductSuggestIndex(ProductRepositoryPort productRepository, MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        Gauge.builder("products.suggest.documents", this, s -> s.read(Index::liveCount))
+                .description("Products in the suggest index")
+                .register(meterRegistry);
+        Gauge.builder("products.suggest.terms", this, s -> s.read(i -> i.terms.size()))
+                .description("Distinct tokens in the suggest index")
+                .register(meterRegistry);
+        Gauge.builder("products.suggest.bytes.per.product", this, s -> s.read(Index::estimatedBytesPerProduct))
+                .description("Estimated heap held by the suggest index per live product")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        write(current -> pending = new ArrayList<>());
+        long start = System.nanoTime();
+        Index fresh = new Index();
+        try {
+            productRepository.forEach(product -> fresh.add(product.getId(), product.getName(), product.getCategory()));
+        } catch (RuntimeException e) {
+            // Keep serving whatever the current index holds rather than failing startup
+            log.error("Could not build suggest index: {}", e.getMessage());
+            write(current -> pending = null);
+            return;
+        }
+        write(current -> {
+            pending.forEach(operation -> operation.accept(fresh));
+            pending = null;
+            index = fresh;
+        });
+        log.info("Suggest index built: {} products, {} terms, ~{} bytes/product in {} ms",
+                fresh.liveCount(), fresh.terms.size(), fresh.estimatedBytesPerProduct(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public void index(Product product) {
+        // Capture now: the caller may keep mutating the aggregate before commit
+        UUID id = product.getId();
+        String name = product.getName();
+        String category = product.getCategory();
+        TransactionCallbacks.afterCommit(() -> apply(current -> current.add(id, name, category)));
+    }
+
+    @Override
+    public void remove(UUID id) {
+        TransactionCallbacks.afterCommit(() -> apply(current -> current.remove(id)));
+    }
+
+    @Override
+    public List<ProductSuggestion> suggest(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit < 1) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            return index.suggest(tokens, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Consumer<Index> operation) {
+        write(current -> {
+            operation.accept(current);
+            if (pending != null) {
+                pending.add(operation);
+            } else if (current.needsCompaction()) {
+                index = current.compact();
+            }
+        });
+    }
+
+    private void write(Consumer<Index> action) {
+        lock.writeLock().lock();
+        try {
+            action.accept(index);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private double read(ToDoubleFunction<Index> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.applyAsDouble(index);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static final class Postings {
+        private int[] docs = new int[2];
+        private int size;
+
+        void add(int doc) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+    }
+
+    private static final class Index {
+        // Rough HotSpot sizes (compressed oops) used for the footprint estimate:
+        // tree entry + key String + its byte[] + Postings + its int[] header
+        private static final int TERM_ENTRY_BYTES = 40 + 24 + 16 + 24 + 16;
+        // Three array slots per ordinal, allocated or not
+        private static final int SLOT_BYTES = 3 * 4;
+        // UUID + name String + its byte[] + HashMap node and table slot + boxed ordinal
+        private static final int LIVE_DOC_BYTES = 32 + 24 + 16 + 36 + 16;
+
+        private final NavigableMap<String, Postings> terms = new TreeMap<>();
+        private final Map<UUID, Integer> ordinals = new HashMap<>();
+        // Categories repeat across many products; keep one copy of each
+        private final Map<String, String> categoryPool = new HashMap<>();
+        private final BitSet live = new BitSet();
+        private UUID[] ids = new UUID[1024];
+        private String[] names = new String[1024];
+        private String[] categories = new String[1024];
+        private int size;
+
+        void add(UUID id, String name, String category) {
+            remove(id);
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                names = Arrays.copyOf(names, capacity);
+                categories = Arrays.copyOf(categories, capacity);
+            }
+
+            int doc = size++;
+            ids[doc] = id;
+            names[doc] = name;
+            categories[doc] = category == null ? null : categoryPool.computeIfAbsent(category, c -> c);
+            live.set(doc);
+            ordinals.put(id, doc);
+
+            Set<String> docTerms = new LinkedHashSet<>(tokenize(name));
+            docTerms.addAll(tokenize(category));
+            for (String term : docTerms) {
+                terms.computeIfAbsent(term, t -> new Postings()).add(doc);
+            }
+        }
+
+        void remove(UUID id) {
+            Integer doc = ordinals.remove(id);
+            if (doc != null) {
+                live.clear(doc);
+                ids[doc] = null;
+                names[doc] = null;
+                categories[doc] = null;
+            }
+        }
+
+        int liveCount() {
+            return ordinals.size();
+        }
+
+        boolean needsCompaction() {
+            return size > 1024 && ordinals.size() < size / 2;
+        }
+
+        Index compact() {
+            Index compacted = new Index();
+            for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+                compacted.add(ids[doc], names[doc], categories[doc]);
+            }
+            return compacted;
+        }
+
+        List<ProductSuggestion> suggest(List<String> tokens, int limit) {
+            // Earlier tokens must prefix some word of the product; the last one drives the scan and
+            // the others are checked against each candidate's own words, so the work stays within
+            // MAX_SCANNED_POSTINGS however common the earlier prefixes are
+            String last = tokens.get(tokens.size() - 1);
+            List<String> others = tokens.subList(0, tokens.size() - 1);
+
+            List<ProductSuggestion> results = new ArrayList<>(limit);
+            Set<Integer> seen = new HashSet<>();
+            int scanned = 0;
+            for (Postings postings : withPrefix(last)) {
+                for (int i = 0; i < postings.size; i++) {
+                    int doc = postings.docs[i];
+                    if (!live.get(doc)) {
+                        continue;
+                    }
+                    if (++scanned > MAX_SCANNED_POSTINGS) {
+                        return results;
+                    }
+                    if (seen.add(doc) && matchesAll(doc, others)) {
+                        results.add(new ProductSuggestion(ids[doc], names[doc], categories[doc]));
+                        if (results.size() == limit) {
+                            return results;
+                        }
+                    }
+                }
+            }
+            return results;
+        }
+
+        private Collection<Postings> withPrefix(String prefix) {
+            return terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values();
+        }
+
+        private boolean matchesAll(int doc, List<String> prefixes) {
+            if (prefixes.isEmpty()) {
+                return true;
+            }
+            List<String> words = new ArrayList<>(tokenize(names[doc]));
+            words.addAll(tokenize(categories[doc]));
+            for (String prefix : prefixes) {
+                if (words.stream().noneMatch(word -> word.startsWith(prefix))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        double estimatedBytesPerProduct() {
+            if (ordinals.isEmpty()) {
+                return 0;
+            }
+            long bytes = (long) ids.length * SLOT_BYTES + live.size() / 8;
+            for (Map.Entry<String, Postings> entry : terms.entrySet()) {
+                bytes += TERM_ENTRY_BYTES + entry.getKey().length() + 4L * entry.getValue().docs.length;
+            }
+            for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+                bytes += LIVE_DOC_BYTES + (names[doc] == null ? 0 : names[doc].length());
+            }
+            return (double) bytes / ordinals.size();
+        }
+    }
+}
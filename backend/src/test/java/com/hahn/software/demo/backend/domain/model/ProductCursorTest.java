@@ -0,0 +1,65 @@
+package com.hahn.software.demo.backend.domain.model;
+
+import com.hahn.software.demo.backend.domain.aggregate.Product;
+import com.hahn.software.demo.backend.domain.exception.ProductException;
+import com.hahn.software.demo.backend.domain.exception.ProductExceptionEnum;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductCursorTest {
+
+    @Test
+    void decodesWhatItEncodes() {
+        ProductCursor cursor = new ProductCursor(LocalDateTime.of(2024, 3, 1, 12, 30, 5, 123_456_000),
+                UUID.randomUUID());
+
+        assertThat(ProductCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void keepsWholeSecondTimestamps() {
+        // LocalDateTime.toString drops zero seconds, which parse must still accept
+        ProductCursor cursor = new ProductCursor(LocalDateTime.of(2024, 3, 1, 12, 30), UUID.randomUUID());
+
+        assertThat(ProductCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void isTakenFromTheLastProductOfAPage() {
+        Product product = Product.builder()
+                .id(UUID.randomUUID())
+                .createdAt(LocalDateTime.of(2024, 1, 2, 3, 4, 5))
+                .build();
+
+        ProductCursor cursor = ProductCursor.decode(ProductCursor.of(product).encode());
+
+        assertThat(cursor.getId()).isEqualTo(product.getId());
+        assertThat(cursor.getCreatedAt()).isEqualTo(product.getCreatedAt());
+    }
+
+    @Test
+    void encodesToAUrlSafeToken() {
+        String token = new ProductCursor(LocalDateTime.now(), UUID.randomUUID()).encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void rejectsTokensThatAreNotCursors() {
+        String missingId = Base64.getUrlEncoder().encodeToString("2024-03-01T12:30".getBytes(StandardCharsets.UTF_8));
+
+        for (String token : new String[]{"not base64!", missingId, ""}) {
+            assertThatThrownBy(() -> ProductCursor.decode(token))
+                    .isInstanceOf(ProductException.class)
+                    .extracting(e -> ((ProductException) e).getCode())
+                    .isEqualTo(ProductExceptionEnum.INVALID_CURSOR.getCode());
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.hahn.software.demo.backend.domain.service;
+
+import com.hahn.software.demo.backend.application.port.outbound.TokenRevocationPort;
+import com.hahn.software.demo.backend.application.port.outbound.UserRepositoryPort;
+import com.hahn.software.demo.backend.domain.aggregate.User;
+import com.hahn.software.demo.backend.domain.exception.UserException;
+import com.hahn.software.demo.backend.domain.exception.UserExceptionEnum;
+import com.hahn.software.demo.backend.infrastructure.config.security.JwtUtils;
+import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.request.RefreshTokenRequest;
+import com.hahn.software.demo.backend.infrastructure.inbound.rest.dto.response.AuthResponse;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuthServiceRefreshTest {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private final User user = User.builder()
+            .id(UUID.randomUUID())
+            .email("jane@example.com")
+            .fullName("Jane Doe")
+            .isActive(true)
+            .build();
+
+    private JwtUtils jwtUtils;
+    private AuthService authService;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        jwtUtils = new JwtUtils(SECRET, 900_000, 1_209_600_000L, 1000, meterRegistry);
+        UserRepositoryPort userRepository = mock(UserRepositoryPort.class);
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        authService = new AuthService(mock(AuthenticationManager.class), userRepository,
+                mock(PasswordEncoder.class), jwtUtils, new InMemoryTokenRevocation(), meterRegistry);
+    }
+
+    @Test
+    void refreshRotatesBothTokensWithinTheSession() {
+        String sessionId = UUID.randomUUID().toString();
+        String refreshToken = jwtUtils.generateRefreshToken(user, sessionId);
+
+        AuthResponse response = refresh(refreshToken);
+
+        assertThat(response.getRefreshToken()).isNotEqualTo(refreshToken);
+        Claims access = jwtUtils.verify(response.getToken(), JwtUtils.TOKEN_USE_ACCESS);
+        Claims refresh = jwtUtils.verify(response.getRefreshToken(), JwtUtils.TOKEN_USE_REFRESH);
+        assertThat(access).isNotNull();
+        assertThat(refresh).isNotNull();
+        assertThat(access.get(JwtUtils.CLAIM_SESSION_ID, String.class)).isEqualTo(sessionId);
+        assertThat(refresh.get(JwtUtils.CLAIM_SESSION_ID, String.class)).isEqualTo(sessionId);
+        assertThat(response.getEmail()).isEqualTo(user.getEmail());
+    }
+
+    @Test
+    void rotatedRefreshTokenCanBeRefreshedAgain() {
+        String refreshToken = jwtUtils.generateRefreshToken(user, UUID.randomUUID().toString());
+
+        AuthResponse second = refresh(refresh(refreshToken).getRefreshToken());
+
+        assertThat(jwtUtils.verify(second.getToken(), JwtUtils.TOKEN_USE_ACCESS)).isNotNull();
+    }
+
+    @Test
+    void reusedRefreshTokenIsRejected() {
+        String refreshToken = jwtUtils.generateRefreshToken(user, UUID.randomUUID().toString());
+        refresh(refreshToken);
+
+        assertInvalid(refreshToken);
+    }
+
+    @Test
+    void reuseRevokesTheTokensIssuedSinceInTheSession() {
+        String refreshToken = jwtUtils.generateRefreshToken(user, UUID.randomUUID().toString());
+        AuthResponse rotated = refresh(refreshToken);
+
+        // Whoever presents the spent token again may hold a stolen copy; the legitimate chain ends too
+        assertInvalid(refreshToken);
+        assertInvalid(rotated.getRefreshToken());
+    }
+
+    @Test
+    void reuseLeavesOtherSessionsAlone() {
+        String stolen = jwtUtils.generateRefreshToken(user, UUID.randomUUID().toString());
+        String otherSession = jwtUtils.generateRefreshToken(user, UUID.randomUUID().toString());
+        refresh(stolen);
+        assertInvalid(stolen);
+
+        assertThat(refresh(otherSession).getToken()).isNotNull();
+    }
+
+    @Test
+    void accessTokenIsNotAcceptedAsRefreshToken() {
+        String accessToken = jwtUtils.generateAccessToken(user, UUID.randomUUID().toString());
+
+        assertInvalid(accessToken);
+    }
+
+    @Test
+    void logoutEndsTheSession() {
+        String refreshToken = jwtUtils.generateRefreshToken(user, UUID.randomUUID().toString());
+        AuthResponse rotated = refresh(refreshToken);
+
+        authService.logout(new RefreshTokenRequest(rotated.getRefreshToken()));
+
+        assertInvalid(rotated.getRefreshToken());
+    }
+
+    private AuthResponse refresh(String refreshToken) {
+        return authService.refreshToken(new RefreshTokenRequest(refreshToken));
+    }
+
+    private void assertInvalid(String refreshToken) {
+        assertThatThrownBy(() -> refresh(refreshToken))
+                .isInstanceOf(UserException.class)
+                .extracting(e -> ((UserException) e).getCode())
+                .isEqualTo(UserExceptionEnum.INVALID_REFRESH_TOKEN.getCode());
+    }
+
+    /**
+     * Same contract as the database-backed adapter: a revocation covers
+     * tokens issued in an earlier second, or every token for
+     * {@link #isRevoked(String)}.
+     */
+    private static final class InMemoryTokenRevocation implements TokenRevocationPort {
+
+        private final Map<String, Instant> revokedAt = new ConcurrentHashMap<>();
+        private final Map<String, Instant> consumed = new ConcurrentHashMap<>();
+
+        @Override
+        public void revoke(String id, Instant expiresAt) {
+            revokedAt.put(id, Instant.now());
+        }
+
+        @Override
+        public boolean consume(String tokenId, Instant expiresAt) {
+            return consumed.putIfAbsent(tokenId, expiresAt) == null;
+        }
+
+        @Override
+        public boolean isRevoked(String id, Instant issuedAt) {
+            Instant revoked = revokedAt.get(id);
+            return revoked != null && issuedAt.getEpochSecond() < revoked.getEpochSecond();
+        }
+
+        @Override
+        public boolean isRevoked(String id) {
+            return revokedAt.containsKey(id);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.hahn.software.demo.backend.infrastructure.output.persistence.adapter;
+
+import com.hahn.software.demo.backend.infrastructure.output.persistence.entity.RevokedTokenEntity;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.repository.ConsumedTokenJpaRepository;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.repository.RevokedTokenJpaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationAdapterTest {
+
+    private final Instant revokedAt = Instant.parse("2024-05-01T12:00:00.700Z");
+
+    private RevokedTokenJpaRepository revokedTokenRepository;
+    private ConsumedTokenJpaRepository consumedTokenRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private TokenRevocationAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        revokedTokenRepository = mock(RevokedTokenJpaRepository.class);
+        consumedTokenRepository = mock(ConsumedTokenJpaRepository.class);
+        when(revokedTokenRepository.findByExpiresAtAfter(any())).thenReturn(List.of(
+                new RevokedTokenEntity("user-1", revokedAt, revokedAt.plus(Duration.ofDays(14)))));
+        meterRegistry = new SimpleMeterRegistry();
+        adapter = new TokenRevocationAdapter(revokedTokenRepository, consumedTokenRepository, 1000,
+                Duration.ofDays(14).toMillis(), meterRegistry);
+        adapter.load();
+    }
+
+    @Test
+    void revokesTokensFromEarlierSecondsOnly() {
+        assertThat(adapter.isRevoked("user-1", revokedAt.minusSeconds(1))).isTrue();
+        // iat is truncated to the second; this token may well have been issued after the revocation
+        assertThat(adapter.isRevoked("user-1", revokedAt.truncatedTo(ChronoUnit.SECONDS))).isFalse();
+        assertThat(adapter.isRevoked("user-1", revokedAt.plusSeconds(1))).isFalse();
+        assertThat(adapter.isRevoked("user-2", revokedAt.minusSeconds(1))).isFalse();
+    }
+
+    @Test
+    void revokedIdsCoverEveryTokenWhenIssueTimeDoesNotMatter() {
+        assertThat(adapter.isRevoked("user-1")).isTrue();
+        assertThat(adapter.isRevoked("user-2")).isFalse();
+        assertThat(adapter.isRevoked(null)).isFalse();
+    }
+
+    @Test
+    void consumedTokensAreSettledInTheDatabaseAndNotKeptInMemory() {
+        Instant expiresAt = Instant.now().plus(Duration.ofDays(14));
+        when(consumedTokenRepository.insertIfAbsent(eq("jti-1"), any(), eq(expiresAt))).thenReturn(1, 0);
+
+        assertThat(adapter.consume("jti-1", expiresAt)).isTrue();
+        assertThat(adapter.consume("jti-1", expiresAt)).isFalse();
+
+        assertThat(adapter.isRevoked("jti-1")).isFalse();
+        assertThat(meterRegistry.get("auth.revocations").gauge().value()).isEqualTo(1.0);
+    }
+}
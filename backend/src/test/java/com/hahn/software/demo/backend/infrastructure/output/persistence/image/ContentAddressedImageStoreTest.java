@@ -0,0 +1,108 @@
+package com.hahn.software.demo.backend.infrastructure.output.persistence.image;
+
+import com.hahn.software.demo.backend.domain.exception.ProductExceptionEnum;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class ContentAddressedImageStoreTest {
+
+    @TempDir
+    Path uploadDir;
+
+    private ContentAddressedImageStore store;
+    // Smaller than the images, so every upload takes several passes through it
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(64);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = new ContentAddressedImageStore(uploadDir.toString(), mock(ImageVariantProcessor.class));
+        store.load();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    void namesTheBlobAfterItsContentAndSniffedFormat() throws IOException {
+        byte[] png = png();
+
+        String blobName = store.stage(UUID.randomUUID(), new ByteArrayInputStream(png), buffer, 1 << 20);
+
+        assertThat(blobName).matches("[0-9a-f]+\\.png");
+        assertThat(Files.readAllBytes(store.locate(blobName))).isEqualTo(png);
+    }
+
+    @Test
+    void identicalUploadsShareOneBlob() throws IOException {
+        byte[] png = png();
+
+        String first = store.stage(UUID.randomUUID(), new ByteArrayInputStream(png), buffer, 1 << 20);
+        String second = store.stage(UUID.randomUUID(), new ByteArrayInputStream(png), buffer, 1 << 20);
+
+        assertThat(second).isEqualTo(first);
+        assertThat(store.stagedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void refusesContentOverTheLimitWithoutKeepingIt() throws IOException {
+        byte[] png = png();
+
+        assertRejected(png, png.length - 1, ProductExceptionEnum.IMAGE_TOO_LARGE);
+        assertThat(store.stagedCount()).isZero();
+        assertThat(blobFiles()).isEmpty();
+    }
+
+    @Test
+    void refusesContentThatIsNotAnImage() throws IOException {
+        byte[] text = "<html><body>not an image</body></html>".getBytes();
+
+        assertRejected(text, 1 << 20, ProductExceptionEnum.UNSUPPORTED_IMAGE_FORMAT);
+        assertThat(blobFiles()).isEmpty();
+    }
+
+    private void assertRejected(byte[] content, long maxBytes, ProductExceptionEnum reason) {
+        assertThatThrownBy(() -> store.stage(UUID.randomUUID(), new ByteArrayInputStream(content), buffer, maxBytes))
+                .isInstanceOf(ImageRejectedException.class)
+                .extracting(e -> ((ImageRejectedException) e).getReason())
+                .isEqualTo(reason);
+    }
+
+    private List<Path> blobFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(uploadDir)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> !file.getFileName().toString().startsWith("manifest"))
+                    .toList();
+        }
+    }
+
+    private static byte[] png() throws IOException {
+        BufferedImage image = new BufferedImage(32, 32, BufferedImage.TYPE_INT_RGB);
+        int[] pixels = new int[32 * 32];
+        Arrays.setAll(pixels, i -> i * 7919);
+        image.setRGB(0, 0, 32, 32, pixels, 0, 32);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,81 @@
+package com.hahn.software.demo.backend.infrastructure.output.persistence.image;
+
+import com.hahn.software.demo.backend.domain.exception.ProductException;
+import com.hahn.software.demo.backend.domain.exception.ProductExceptionEnum;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UploadBudgetTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void refusesAnImageAboveTheSizeLimit() {
+        UploadBudget budget = budget(DataSize.ofMegabytes(4), 2);
+
+        assertRefused(() -> budget.acquire(DataSize.ofMegabytes(1).toBytes() + 1), ProductExceptionEnum.IMAGE_TOO_LARGE);
+    }
+
+    @Test
+    void leaseHandsOutAPooledBuffer() {
+        UploadBudget budget = budget(DataSize.ofMegabytes(4), 1);
+
+        try (UploadBudget.Lease lease = budget.acquire(1000)) {
+            assertThat(lease.buffer().isDirect()).isTrue();
+            assertThat(lease.buffer().capacity()).isEqualTo(8 * 1024);
+        }
+        try (UploadBudget.Lease lease = budget.acquire(1000)) {
+            // The single buffer came back cleared
+            assertThat(lease.buffer().position()).isZero();
+        }
+    }
+
+    @Test
+    void refusesWhileTheByteBudgetIsTaken() {
+        UploadBudget budget = budget(DataSize.ofMegabytes(2), 4);
+        long oneMegabyte = DataSize.ofMegabytes(1).toBytes();
+
+        UploadBudget.Lease first = budget.acquire(oneMegabyte);
+        UploadBudget.Lease second = budget.acquire(oneMegabyte);
+        assertRefused(() -> budget.acquire(1), ProductExceptionEnum.IMAGE_UPLOAD_BUSY);
+
+        first.close();
+        budget.acquire(oneMegabyte).close();
+        second.close();
+        assertThat(meterRegistry.counter("images.upload.rejected").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void refusesWhenEveryBufferIsLeasedAndGivesTheBytesBack() {
+        UploadBudget budget = budget(DataSize.ofMegabytes(4), 1);
+        long oneMegabyte = DataSize.ofMegabytes(1).toBytes();
+
+        UploadBudget.Lease held = budget.acquire(1);
+        assertRefused(() -> budget.acquire(oneMegabyte), ProductExceptionEnum.IMAGE_UPLOAD_BUSY);
+        held.close();
+
+        // The refused upload's share of the budget was released with it
+        try (UploadBudget.Lease ignored = budget.acquire(oneMegabyte)) {
+            assertThat(meterRegistry.get("images.upload.budget").gauge().value()).isEqualTo(oneMegabyte);
+        }
+        assertThat(meterRegistry.get("images.upload.budget").gauge().value()).isZero();
+    }
+
+    private UploadBudget budget(DataSize uploadBudget, int buffers) {
+        return new UploadBudget(DataSize.ofMegabytes(1), uploadBudget, buffers, DataSize.ofKilobytes(8),
+                Duration.ofMillis(50), meterRegistry);
+    }
+
+    private static void assertRefused(Runnable upload, ProductExceptionEnum reason) {
+        assertThatThrownBy(upload::run)
+                .isInstanceOf(ProductException.class)
+                .extracting(e -> ((ProductException) e).getCode())
+                .isEqualTo(reason.getCode());
+    }
+}
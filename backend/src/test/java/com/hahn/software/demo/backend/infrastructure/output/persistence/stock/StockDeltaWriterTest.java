@@ -0,0 +1,117 @@
+package com.hahn.software.demo.backend.infrastructure.output.persistence.stock;
+
+import com.hahn.software.demo.backend.infrastructure.output.persistence.adapter.CachingProductRepositoryAdapter;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.entity.StockFlushEntity;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.repository.ProductJpaRepository;
+import com.hahn.software.demo.backend.infrastructure.output.persistence.repository.StockFlushJpaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StockDeltaWriterTest {
+
+    private final UUID instanceId = UUID.randomUUID();
+    private final UUID low = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private final UUID high = UUID.fromString("00000000-0000-0000-0000-000000000002");
+
+    private ProductJpaRepository productJpaRepository;
+    private StockFlushJpaRepository stockFlushJpaRepository;
+    private CachingProductRepositoryAdapter productCache;
+    private SimpleMeterRegistry meterRegistry;
+    private StockDeltaWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        productJpaRepository = mock(ProductJpaRepository.class);
+        stockFlushJpaRepository = mock(StockFlushJpaRepository.class);
+        productCache = mock(CachingProductRepositoryAdapter.class);
+        meterRegistry = new SimpleMeterRegistry();
+        writer = new StockDeltaWriter(productJpaRepository, stockFlushJpaRepository, productCache, meterRegistry);
+    }
+
+    @Test
+    void appliesEachDeltaAndRecordsTheSegment() {
+        when(productJpaRepository.applyStockDelta(eq(low), eq(-3), any())).thenReturn(Optional.of(7));
+        when(productJpaRepository.applyStockDelta(eq(high), eq(2), any())).thenReturn(Optional.of(12));
+
+        Map<UUID, Integer> stock = writer.apply(instanceId, 42, Map.of(high, 2L, low, -3L));
+
+        assertThat(stock).isEqualTo(Map.of(low, 7, high, 12));
+        // Rows are locked in id order, whatever order the deltas came in
+        InOrder order = inOrder(productJpaRepository);
+        order.verify(productJpaRepository).applyStockDelta(eq(low), eq(-3), any());
+        order.verify(productJpaRepository).applyStockDelta(eq(high), eq(2), any());
+        ArgumentCaptor<StockFlushEntity> marker = ArgumentCaptor.forClass(StockFlushEntity.class);
+        verify(stockFlushJpaRepository).save(marker.capture());
+        assertThat(marker.getValue().getInstanceId()).isEqualTo(instanceId);
+        assertThat(marker.getValue().getSegment()).isEqualTo(42L);
+        verify(stockFlushJpaRepository).deleteBefore(instanceId, 42);
+        verify(productCache).evictAll(Set.of(low, high));
+    }
+
+    @Test
+    void skipsASegmentThatWasAlreadyCommitted() {
+        when(stockFlushJpaRepository.existsById(new StockFlushEntity.Key(instanceId, 42L))).thenReturn(true);
+
+        Map<UUID, Integer> stock = writer.apply(instanceId, 42, Map.of(low, -3L));
+
+        assertThat(stock).isEmpty();
+        verify(productJpaRepository, never()).applyStockDelta(any(), anyInt(), any());
+        verify(stockFlushJpaRepository, never()).save(any());
+    }
+
+    @Test
+    void anotherInstancesSegmentWithTheSameIdIsNotSkipped() {
+        UUID otherInstance = UUID.randomUUID();
+        when(stockFlushJpaRepository.existsById(new StockFlushEntity.Key(otherInstance, 42L))).thenReturn(true);
+        when(productJpaRepository.applyStockDelta(eq(low), eq(-3), any())).thenReturn(Optional.of(7));
+
+        assertThat(writer.apply(instanceId, 42, Map.of(low, -3L))).isEqualTo(Map.of(low, 7));
+    }
+
+    @Test
+    void leavesOutProductsThatNoLongerExist() {
+        when(productJpaRepository.applyStockDelta(eq(low), eq(-3), any())).thenReturn(Optional.empty());
+        when(productJpaRepository.findStockQuantityById(low)).thenReturn(Optional.empty());
+
+        assertThat(writer.apply(instanceId, 42, Map.of(low, -3L))).isEmpty();
+        verify(productJpaRepository, never()).clearStock(any(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void clampsAtZeroWhenTheRowCannotCoverTheDelta() {
+        when(productJpaRepository.applyStockDelta(eq(low), eq(-5), any())).thenReturn(Optional.empty());
+        when(productJpaRepository.findStockQuantityById(low)).thenReturn(Optional.of(2));
+        when(productJpaRepository.clearStock(eq(low), any())).thenReturn(Optional.of(0));
+
+        assertThat(writer.apply(instanceId, 42, Map.of(low, -5L))).isEqualTo(Map.of(low, 0));
+        assertThat(meterRegistry.counter("stock.writebehind.oversold").count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void lastSegmentIsZeroBeforeTheFirstFlush() {
+        when(stockFlushJpaRepository.findLastSegment(instanceId)).thenReturn(Optional.empty());
+
+        assertThat(writer.lastSegment(instanceId)).isZero();
+        verify(stockFlushJpaRepository, never()).deleteBefore(any(), anyLong());
+    }
+}
@@ -0,0 +1,117 @@
+package com.hahn.software.demo.backend.infrastructure.output.persistence.stock;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StockJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private final UUID first = UUID.randomUUID();
+    private final UUID second = UUID.randomUUID();
+
+    @Test
+    void readSumsTheDeltasOfASegmentPerProduct() throws IOException {
+        long segment;
+        try (StockJournal journal = StockJournal.open(directory, 1)) {
+            journal.append(first, -2);
+            journal.append(second, 5);
+            journal.append(first, -3);
+            segment = journal.rotate();
+        }
+
+        assertThat(StockJournal.read(directory, segment)).isEqualTo(Map.of(first, -5L, second, 5L));
+    }
+
+    @Test
+    void rotationStartsANewSegmentAfterTheLastOne() throws IOException {
+        long previous;
+        long current;
+        try (StockJournal journal = StockJournal.open(directory, 1)) {
+            journal.append(first, -1);
+            previous = journal.rotate();
+            journal.append(first, -4);
+            current = journal.rotate();
+        }
+
+        List<Long> segments = StockJournal.segments(directory);
+        assertThat(current).isGreaterThan(previous);
+        // The segment opened by the last rotation is empty but on disk as well
+        assertThat(segments).hasSize(3).startsWith(previous, current).isSorted();
+        assertThat(StockJournal.read(directory, previous)).isEqualTo(Map.of(first, -1L));
+        assertThat(StockJournal.read(directory, current)).isEqualTo(Map.of(first, -4L));
+    }
+
+    @Test
+    void openNeverReusesAnEarlierSegment() throws IOException {
+        long flushed = System.currentTimeMillis() + 60_000;
+        try (StockJournal journal = StockJournal.open(directory, flushed + 1)) {
+            assertThat(journal.rotate()).isEqualTo(flushed + 1);
+        }
+    }
+
+    @Test
+    void readStopsAtATornRecord() throws IOException {
+        long segment;
+        try (StockJournal journal = StockJournal.open(directory, 1)) {
+            journal.append(first, -2);
+            journal.append(second, 7);
+            segment = journal.rotate();
+        }
+        Path file = directory.resolve("stock-" + segment + ".journal");
+        // A crash mid-write leaves a partial record behind
+        Files.write(file, new byte[10], StandardOpenOption.APPEND);
+
+        assertThat(StockJournal.read(directory, segment)).isEqualTo(Map.of(first, -2L, second, 7L));
+    }
+
+    @Test
+    void readStopsAtACorruptRecord() throws IOException {
+        long segment;
+        try (StockJournal journal = StockJournal.open(directory, 1)) {
+            journal.append(first, -2);
+            journal.append(second, 7);
+            journal.append(first, -1);
+            segment = journal.rotate();
+        }
+        Path file = directory.resolve("stock-" + segment + ".journal");
+        byte[] bytes = Files.readAllBytes(file);
+        // Flips a bit in the second record's delta; its checksum no longer matches
+        bytes[24 + 19] ^= 1;
+        Files.write(file, bytes);
+
+        assertThat(StockJournal.read(directory, segment)).isEqualTo(Map.of(first, -2L));
+    }
+
+    @Test
+    void deleteRemovesOnlyThatSegment() throws IOException {
+        long segment;
+        try (StockJournal journal = StockJournal.open(directory, 1)) {
+            journal.append(first, -1);
+            segment = journal.rotate();
+        }
+
+        StockJournal.delete(directory, segment);
+
+        assertThat(StockJournal.segments(directory)).hasSize(1).doesNotContain(segment);
+    }
+
+    @Test
+    void instanceIdSurvivesARestart() throws IOException {
+        UUID instanceId = StockJournal.instanceId(directory);
+
+        assertThat(StockJournal.instanceId(directory)).isEqualTo(instanceId);
+        assertThat(StockJournal.segments(directory)).isEmpty();
+    }
+}
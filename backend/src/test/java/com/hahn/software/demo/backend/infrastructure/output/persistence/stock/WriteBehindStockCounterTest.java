@@ -0,0 +1,107 @@
+package com.hahn.software.demo.backend.infrastructure.output.persistence.stock;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WriteBehindStockCounterTest {
+
+    @TempDir
+    Path directory;
+
+    private final UUID product = UUID.randomUUID();
+    private StockDeltaWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        writer = mock(StockDeltaWriter.class);
+        when(writer.apply(any(), anyLong(), anyMap())).thenReturn(Map.of());
+    }
+
+    @Test
+    void replaysLeftoverSegmentsBeforeAcceptingAdjustments() throws IOException {
+        UUID instanceId = StockJournal.instanceId(directory);
+        long segment;
+        try (StockJournal journal = StockJournal.open(directory, 1)) {
+            journal.append(product, -2);
+            journal.append(product, -1);
+            segment = journal.rotate();
+        }
+
+        WriteBehindStockCounter counter = counter();
+        counter.start();
+
+        verify(writer).apply(instanceId, segment, Map.of(product, -3L));
+        // Replayed segments are gone; only the fresh one the counter opened remains
+        assertThat(StockJournal.segments(directory)).hasSize(1).allMatch(id -> id > segment);
+        counter.stop();
+    }
+
+    @Test
+    void flushHandsAcknowledgedAdjustmentsToTheWriterAndRebases() throws IOException {
+        when(writer.loadStock(product)).thenReturn(Optional.of(10));
+        WriteBehindStockCounter counter = counter();
+        counter.start();
+        UUID instanceId = StockJournal.instanceId(directory);
+
+        assertThat(counter.adjust(product, -4)).contains(6);
+        assertThat(counter.adjust(product, -7)).isEmpty();
+        assertThat(counter.adjust(product, -1)).contains(5);
+        // The row moved by other writers in the meantime
+        when(writer.apply(eq(instanceId), anyLong(), eq(Map.of(product, -5L)))).thenReturn(Map.of(product, 3));
+
+        counter.flush();
+
+        verify(writer).apply(eq(instanceId), anyLong(), eq(Map.of(product, -5L)));
+        assertThat(counter.currentStock(product)).contains(3);
+        assertThat(counter.adjustmentCount()).isEqualTo(2);
+        counter.stop();
+    }
+
+    @Test
+    void setJournalsTheDifference() throws IOException {
+        when(writer.loadStock(product)).thenReturn(Optional.of(10));
+        WriteBehindStockCounter counter = counter();
+        counter.start();
+
+        assertThat(counter.set(product, 25)).contains(25);
+        counter.flush();
+
+        verify(writer).apply(any(), anyLong(), eq(Map.of(product, 15L)));
+        counter.stop();
+    }
+
+    @Test
+    void unknownProductsAreRefused() throws IOException {
+        when(writer.loadStock(product)).thenReturn(Optional.empty());
+        WriteBehindStockCounter counter = counter();
+        counter.start();
+
+        assertThat(counter.adjust(product, -1)).isEmpty();
+        counter.flush();
+
+        verify(writer, never()).apply(any(), anyLong(), anyMap());
+        counter.stop();
+    }
+
+    private WriteBehindStockCounter counter() {
+        return new WriteBehindStockCounter(product.toString(), directory.toString(), writer, new SimpleMeterRegistry());
+    }
+}
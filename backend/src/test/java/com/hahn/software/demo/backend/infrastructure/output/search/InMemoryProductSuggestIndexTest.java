@@ -0,0 +1,58 @@
+package com.hahn.software.demo.backend.infrastructure.output.search;
+
+import com.hahn.software.demo.backend.application.port.outbound.ProductRepositoryPort;
+import com.hahn.software.demo.backend.domain.aggregate.Product;
+import com.hahn.software.demo.backend.domain.model.ProductSuggestion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class InMemoryProductSuggestIndexTest {
+
+    private InMemoryProductSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InMemoryProductSuggestIndex(mock(ProductRepositoryPort.class), new SimpleMeterRegistry());
+        // Outside a transaction the index applies writes immediately
+        index.index(product("Red Shoe", "Apparel"));
+        index.index(product("Red Hat", "Apparel"));
+        index.index(product("Blue Shoe", "Footwear"));
+    }
+
+    @Test
+    void lastTokenMatchesAsPrefix() {
+        assertThat(index.suggest("re", 10))
+                .extracting(ProductSuggestion::getName)
+                .containsExactlyInAnyOrder("Red Shoe", "Red Hat");
+    }
+
+    @Test
+    void earlierTokensMustPrefixAWordOfTheCandidate() {
+        assertThat(index.suggest("red sh", 10))
+                .extracting(ProductSuggestion::getName)
+                .containsExactly("Red Shoe");
+        assertThat(index.suggest("foot sh", 10))
+                .extracting(ProductSuggestion::getName)
+                .containsExactly("Blue Shoe");
+        assertThat(index.suggest("green sh", 10)).isEmpty();
+    }
+
+    @Test
+    void removedProductsAreNotSuggested() {
+        Product green = product("Green Shoe", "Footwear");
+        index.index(green);
+        index.remove(green.getId());
+
+        assertThat(index.suggest("green", 10)).isEmpty();
+    }
+
+    private static Product product(String name, String category) {
+        return Product.builder().id(UUID.randomUUID()).name(name).category(category).build();
+    }
+}
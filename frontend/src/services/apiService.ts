@@ -1,10 +1,14 @@
 import axios, { AxiosInstance, AxiosResponse } from 'axios';
 import { environment } from '../environment/environment';
-import { BaseApiResponse, ApiErrorResponse } from '../types/response';
-import { BaseApiRequest } from '../types/request';
+import { BaseApiResponse, ApiErrorResponse, AuthResponseData } from '../types/response';
+import { BaseApiRequest, createApiRequest } from '../types/request';
+
+const REFRESH_PATH = '/api/auth/refresh';
 
 class ApiService {
   private api: AxiosInstance;
+  // Shared by every request that fails while a refresh is in flight, so the single-use token is spent once
+  private refreshing: Promise<string> | null = null;
   constructor() {
     this.api = axios.create({
       baseURL: environment.baseUrl,
@@ -62,16 +66,57 @@ class ApiService {
           }
         });
 
+        const original = error.config;
+        if (error.response?.status === 401 && original && !original._retried
+            && original.url !== REFRESH_PATH && localStorage.getItem('refreshToken')) {
+          // Access tokens are short-lived; trade the refresh token for a new pair and retry once
+          original._retried = true;
+          return this.refreshAccessToken().then(
+            (token) => {
+              original.headers.Authorization = `Bearer ${token}`;
+              return this.api(original);
+            },
+            () => {
+              this.redirectToLogin();
+              return Promise.reject(error);
+            }
+          );
+        }
+
         if (error.response?.status === 401) {
-          localStorage.removeItem('authToken');
-          localStorage.removeItem('user');
-          window.location.href = '/login';
+          this.redirectToLogin();
         }
         return Promise.reject(error);
       }
     );
   }
 
+  private refreshAccessToken(): Promise<string> {
+    if (!this.refreshing) {
+      const request = createApiRequest({ refreshToken: localStorage.getItem('refreshToken') });
+      this.refreshing = this.api
+        .post<BaseApiResponse<AuthResponseData>>(REFRESH_PATH, request)
+        .then((response) => {
+          const auth = response.data.responseData;
+          localStorage.setItem('authToken', auth.token);
+          localStorage.setItem('refreshToken', auth.refreshToken);
+          localStorage.setItem('user', JSON.stringify(auth));
+          return auth.token;
+        })
+        .finally(() => {
+          this.refreshing = null;
+        });
+    }
+    return this.refreshing;
+  }
+
+  private redirectToLogin(): void {
+    localStorage.removeItem('authToken');
+    localStorage.removeItem('refreshToken');
+    localStorage.removeItem('user');
+    window.location.href = '/login';
+  }
+
   public getApi(): AxiosInstance {
     return this.api;
   }
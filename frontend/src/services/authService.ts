@@ -39,8 +39,18 @@ class AuthService {
     return localStorage.getItem('authToken');
   }
 
+  // Refresh tokens are single-use; every refresh returns the next one
+  setRefreshToken(refreshToken: string): void {
+    localStorage.setItem('refreshToken', refreshToken);
+  }
+
+  getRefreshToken(): string | null {
+    return localStorage.getItem('refreshToken');
+  }
+
   removeAuthToken(): void {
     localStorage.removeItem('authToken');
+    localStorage.removeItem('refreshToken');
     localStorage.removeItem('user');
   }
 
@@ -53,6 +63,7 @@ class AuthService {
   setUserData(userData: AuthResponseData): void {
     localStorage.setItem('user', JSON.stringify(userData));
     this.setAuthToken(userData.token);
+    this.setRefreshToken(userData.refreshToken);
   }
 
   getUserData(): AuthResponseData | null {
@@ -61,7 +72,13 @@ class AuthService {
   }
 
   logout(): void {
+    const refreshToken = this.getRefreshToken();
     this.removeAuthToken();
+    if (refreshToken) {
+      // Revokes the session server-side; the local tokens are already gone either way
+      const request = createApiRequest({ refreshToken });
+      apiService.request<null>('POST', `${this.AUTH_BASE_PATH}/logout`, request).catch(() => undefined);
+    }
   }
 }
 
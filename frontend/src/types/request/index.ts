@@ -20,6 +20,10 @@ export interface RegisterRequestData {
   password: string;
 }
 
+export interface RefreshTokenRequestData {
+  refreshToken: string;
+}
+
 // Product Request DTOs
 export interface ProductRequestData {
   name: string;
@@ -40,6 +44,7 @@ export interface ProductUpdateRequestData extends ProductRequestData {
 // Typed request wrappers
 export type LoginRequest = BaseApiRequest<LoginRequestData>;
 export type RegisterRequest = BaseApiRequest<RegisterRequestData>;
+export type RefreshTokenRequest = BaseApiRequest<RefreshTokenRequestData>;
 
 // Typed request wrappers for products
 export type CreateProductRequest = BaseApiRequest<ProductCreateRequestData>;
@@ -9,6 +9,7 @@ export interface BaseApiResponse<T = any> {
 // Auth Response DTOs
 export interface AuthResponseData {
   token: string;
+  refreshToken: string;
   email: string;
   fullName: string;
 }